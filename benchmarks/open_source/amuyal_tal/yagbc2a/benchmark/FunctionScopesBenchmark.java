@@ -0,0 +1,135 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import open_source.amuyal_tal.yagbc2a.HandledException;
+import open_source.amuyal_tal.yagbc2a.core.Assembler;
+import open_source.amuyal_tal.yagbc2a.parsing.SourceFile;
+
+/**
+ * Measures how assembly time scales with the count of functions in the program.
+ *
+ * Every function references a local label, thus the owner of the referencing line is looked up once per
+ * function. With a lookup that is linear in the count of functions, the cost per function grows with the
+ * count of functions; with the indexed lookup it stays (roughly) flat.
+ */
+public final class FunctionScopesBenchmark
+{
+	private static final int[] FUNCTIONS_COUNTS = { 500, 1000, 2000, 4000, 8000 };
+
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int MEASURED_ROUNDS = 5;
+
+	public static void main(final String[] args) throws IOException, HandledException
+	{
+		for(final int functionsCount : FUNCTIONS_COUNTS)
+		{
+			final Path sourcePath = Files.createTempFile("yagbc2a-functions-", ".asm");
+
+			try
+			{
+				writeProgram(sourcePath, functionsCount);
+
+				final double nanoseconds = measure(sourcePath);
+
+				System.out.println(String.format(
+						"%6d functions: %10.1f us total, %8.1f ns/function",
+						functionsCount,
+						nanoseconds / 1000,
+						nanoseconds / functionsCount
+						));
+			}
+			finally
+			{
+				Files.delete(sourcePath);
+			}
+		}
+	}
+
+	private static double measure(final Path sourcePath) throws IOException, HandledException
+	{
+		long best = Long.MAX_VALUE;
+		int sink = 0;
+
+		for(int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++)
+		{
+			final SourceFile sourceFile = new SourceFile();
+			sourceFile.readFile(sourcePath.toString());
+
+			final long start = System.nanoTime();
+
+			sink += Assembler.assemble(sourceFile).getCodeSegmentSize();
+
+			final long elapsed = System.nanoTime() - start;
+			if(round >= WARMUP_ROUNDS)
+			{
+				best = Long.min(best, elapsed);
+			}
+		}
+
+		if(sink == 0)
+		{
+			System.out.println(); //Keeps the results alive
+		}
+
+		return best;
+	}
+
+	/**
+	 * Writes a program that calls each of its functions, where every function loops over a local label
+	 */
+	private static void writeProgram(
+			final Path sourcePath,
+			final int functionsCount
+			) throws IOException
+	{
+		try(final PrintWriter writer = new PrintWriter(Files.newBufferedWriter(sourcePath)))
+		{
+			writer.println("define string __program_name \"BENCHMARK\"");
+			writer.println("define string __manufacturer_code \"BNCH\"");
+			writer.println();
+			writer.println("main:");
+
+			for(int i = 0; i < functionsCount; i++)
+			{
+				writer.println("\tCALL function" + i);
+			}
+
+			writer.println("\tHALT");
+
+			for(int i = 0; i < functionsCount; i++)
+			{
+				writer.println();
+				writer.println("func function" + i);
+				writer.println("loop:");
+				writer.println("\tDEC A");
+				writer.println("\tJP NZ,loop");
+				writer.println("\tRET");
+				writer.println("end");
+			}
+		}
+	}
+}
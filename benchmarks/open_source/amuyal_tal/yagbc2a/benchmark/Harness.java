@@ -0,0 +1,179 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal measurement harness: each workload is warmed up and then measured over a few rounds, and the best
+ * round is reported (in nanoseconds per unit, e.g. per line).
+ *
+ * Each round runs the workload enough times to process (about) {@value #UNITS_PER_ROUND} units (up to
+ * {@value #MAXIMAL_RUNS_PER_ROUND} runs), thus small inputs are measured as accurately as large ones. Results may be saved as a baseline and compared to a
+ * previously saved baseline.
+ */
+final class Harness
+{
+	interface Workload
+	{
+		/**
+		 * Prepares a single run (not measured)
+		 */
+		default void prepare() throws Exception
+		{
+			//Nothing to prepare
+		}
+
+		/**
+		 * @return A value that depends on the work (keeps the results alive)
+		 */
+		long run() throws Exception;
+	}
+
+	private static final int UNITS_PER_ROUND = 1000000;
+	private static final int MAXIMAL_RUNS_PER_ROUND = 10000;
+
+	private final int _warmupRounds;
+	private final int _measuredRounds;
+	private final Map<String, Double> _results; //Result name to nanoseconds per unit
+	private final List<String> _resultsNames; //In the order of measurement
+	private long _sink;
+
+	Harness(
+			final int warmupRounds,
+			final int measuredRounds
+			)
+	{
+		_warmupRounds = warmupRounds;
+		_measuredRounds = measuredRounds;
+		_results = new HashMap<String, Double>();
+		_resultsNames = new ArrayList<String>();
+		_sink = 0;
+	}
+
+	/**
+	 * @param unitsCount The amount of units (e.g. lines) that a single run processes
+	 * @return Nanoseconds per unit
+	 */
+	double measure(
+			final String name,
+			final int unitsCount,
+			final Workload workload
+			) throws Exception
+	{
+		final int runsPerRound = Integer.min(MAXIMAL_RUNS_PER_ROUND, Integer.max(1, UNITS_PER_ROUND / unitsCount));
+
+		long best = Long.MAX_VALUE;
+
+		for(int round = 0; round < _warmupRounds + _measuredRounds; round++)
+		{
+			long elapsed = 0;
+
+			for(int run = 0; run < runsPerRound; run++)
+			{
+				workload.prepare();
+
+				final long start = System.nanoTime();
+				_sink += workload.run();
+				elapsed += System.nanoTime() - start;
+			}
+
+			if(round >= _warmupRounds)
+			{
+				best = Long.min(best, elapsed);
+			}
+		}
+
+		final double nanosecondsPerUnit = (double)best / ((long)runsPerRound * unitsCount);
+
+		final String resultName = name + " @" + unitsCount;
+		_results.put(resultName, nanosecondsPerUnit);
+		_resultsNames.add(resultName);
+
+		System.out.println(String.format("%-48s %12.1f ns/unit", resultName, nanosecondsPerUnit));
+
+		return nanosecondsPerUnit;
+	}
+
+	/**
+	 * Writes the results, a result per line: its nanoseconds per unit, followed by its name
+	 */
+	void save(
+			final String filePath
+			) throws Exception
+	{
+		final List<String> lines = new ArrayList<String>();
+		for(final String resultName : _resultsNames)
+		{
+			lines.add(String.format("%.1f %s", _results.get(resultName), resultName));
+		}
+
+		Files.write(Paths.get(filePath), lines, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Prints the change of each result relatively to a saved baseline
+	 */
+	void compare(
+			final String filePath
+			) throws Exception
+	{
+		System.out.println();
+		System.out.println("Compared to `" + filePath + "`:");
+
+		for(final String line : Files.readAllLines(Paths.get(filePath), StandardCharsets.UTF_8))
+		{
+			final int separatorIndex = line.indexOf(' ');
+			if(separatorIndex < 0)
+			{
+				continue;
+			}
+
+			final double baseline = Double.parseDouble(line.substring(0, separatorIndex));
+			final String resultName = line.substring(separatorIndex + 1);
+			final Double result = _results.get(resultName);
+
+			if(result == null)
+			{
+				continue; //Not measured in this run
+			}
+
+			System.out.println(String.format(
+					"%-48s %12.1f -> %12.1f ns/unit (%+.1f%%)",
+					resultName,
+					baseline,
+					result,
+					(result - baseline) * 100 / baseline
+					));
+		}
+
+		if(_sink == 0)
+		{
+			System.out.println(); //Keeps the results alive
+		}
+	}
+}
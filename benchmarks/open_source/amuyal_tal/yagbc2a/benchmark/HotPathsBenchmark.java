@@ -0,0 +1,333 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.benchmark;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import open_source.amuyal_tal.yagbc2a.InstructionDataBase;
+import open_source.amuyal_tal.yagbc2a.core.Assembler;
+import open_source.amuyal_tal.yagbc2a.core.Linker;
+import open_source.amuyal_tal.yagbc2a.core.object.ObjectFile;
+import open_source.amuyal_tal.yagbc2a.core.object.cartridge.BootHeader;
+import open_source.amuyal_tal.yagbc2a.language.instruction.InstructionTemplate;
+import open_source.amuyal_tal.yagbc2a.parsing.CommandTokens;
+import open_source.amuyal_tal.yagbc2a.parsing.SourceFile;
+import open_source.amuyal_tal.yagbc2a.parsing.SourceLine;
+import open_source.amuyal_tal.yagbc2a.utils.Utils;
+
+/**
+ * Measures the hot paths of the assembler and of the linker, over synthetic programs of growing sizes.
+ *
+ * Per-line paths (normalization, instruction parsing, instruction matching, operand matching and literal
+ * parsing) are measured over 1K to 1M lines. Whole-program paths (assembly, including the resolution of
+ * symbols, and linking) are measured over programs whose code fits in the 16-bit address space.
+ *
+ * Usage: `HotPathsBenchmark [--save <baseline file>] [--compare <baseline file>]`
+ */
+public final class HotPathsBenchmark
+{
+	private static final int[] LINES_COUNTS = { 1000, 10000, 100000, 1000000 };
+	private static final int[] PROGRAM_LINES_COUNTS = { 1000, 4000, SyntheticProgram.MAXIMAL_LINES_COUNT };
+
+	private static final int WARMUP_ROUNDS = 3;
+	private static final int MEASURED_ROUNDS = 5;
+
+	private static final String FILE_NAME = "synthetic.asm";
+
+	public static void main(final String[] args) throws Exception
+	{
+		String baselineSavePath = null;
+		String baselineComparePath = null;
+
+		for(int i = 0; i < args.length; i++)
+		{
+			switch(args[i])
+			{
+				case "--save":
+				{
+					i++;
+					baselineSavePath = args[i];
+				}
+				break;
+
+				case "--compare":
+				{
+					i++;
+					baselineComparePath = args[i];
+				}
+				break;
+
+				default:
+				{
+					System.out.println("Unknown flag \'" + args[i] + "\'");
+					return;
+				}
+			}
+		}
+
+		final Harness harness = new Harness(WARMUP_ROUNDS, MEASURED_ROUNDS);
+
+		for(final int linesCount : LINES_COUNTS)
+		{
+			measureLines(harness, linesCount);
+		}
+
+		for(final int linesCount : PROGRAM_LINES_COUNTS)
+		{
+			measurePrograms(harness, linesCount);
+		}
+
+		measureBootHeader(harness);
+
+		if(baselineComparePath != null)
+		{
+			harness.compare(baselineComparePath);
+		}
+
+		if(baselineSavePath != null)
+		{
+			harness.save(baselineSavePath);
+		}
+	}
+
+	private static void measureLines(
+			final Harness harness,
+			final int linesCount
+			) throws Exception
+	{
+		final List<String> lines = SyntheticProgram.generate(linesCount);
+
+		harness.measure("SourceLine (normalization)", lines.size(), () ->
+		{
+			long sink = 0;
+
+			for(int i = 0; i < lines.size(); i++)
+			{
+				sink += new SourceLine(lines.get(i), FILE_NAME, i + 1).getTokens().getTokensCount();
+			}
+
+			return sink;
+		});
+
+		final List<String> instructions = SyntheticProgram.generateResolvedInstructions(linesCount);
+		final List<SourceLine> instructionsLines = new ArrayList<SourceLine>(instructions.size());
+		for(int i = 0; i < instructions.size(); i++)
+		{
+			instructionsLines.add(new SourceLine(instructions.get(i), FILE_NAME, i + 1));
+		}
+
+		harness.measure("CommandTokens (parsing)", instructionsLines.size(), () ->
+		{
+			long sink = 0;
+
+			for(final SourceLine line : instructionsLines)
+			{
+				sink += new CommandTokens(line.getTokens(), line.getFirstTokenIndex()).getArgumentsCount();
+			}
+
+			return sink;
+		});
+
+		final List<CommandTokens> commands = new ArrayList<CommandTokens>(instructionsLines.size());
+		final List<InstructionTemplate> templates = new ArrayList<InstructionTemplate>(instructionsLines.size());
+		final List<String> literals = new ArrayList<String>();
+		for(final SourceLine line : instructionsLines)
+		{
+			final CommandTokens command = line.getCommandTokens();
+			final InstructionTemplate template = InstructionDataBase.match(command);
+			Utils.assertCondition(template != null);
+
+			commands.add(command);
+			templates.add(template);
+
+			for(int i = 0; i < command.getArgumentsCount(); i++)
+			{
+				final String literal = getLiteral(command.getArgument(i));
+				if(literal != null)
+				{
+					literals.add(literal);
+				}
+			}
+		}
+
+		harness.measure("InstructionDataBase.match", commands.size(), () ->
+		{
+			long sink = 0;
+
+			for(final CommandTokens command : commands)
+			{
+				sink += InstructionDataBase.match(command).getSize();
+			}
+
+			return sink;
+		});
+
+		harness.measure("Operand.matches", commands.size(), () ->
+		{
+			long sink = 0;
+
+			for(int i = 0; i < commands.size(); i++)
+			{
+				if(templates.get(i).matchesArguments(commands.get(i)))
+				{
+					sink++;
+				}
+			}
+
+			return sink;
+		});
+
+		harness.measure("Utils.parseValue", literals.size(), () ->
+		{
+			long sink = 0;
+
+			for(final String literal : literals)
+			{
+				sink += Utils.parseValue(literal);
+			}
+
+			return sink;
+		});
+	}
+
+	private static void measurePrograms(
+			final Harness harness,
+			final int linesCount
+			) throws Exception
+	{
+		final List<String> lines = SyntheticProgram.generate(linesCount);
+		final SourceFile[] sourceFile = new SourceFile[1]; //Prepared for each run, as assembly consumes it
+		final Linker[] linker = new Linker[1]; //Prepared for each run, as the linked image is cached
+
+		//Includes the resolution of symbols (backpatching of forward references) and the rest of the passes
+		harness.measure("Assembler.assemble", lines.size(), new Harness.Workload()
+		{
+			@Override
+			public void prepare()
+			{
+				sourceFile[0] = createSourceFile(lines);
+			}
+
+			@Override
+			public long run() throws Exception
+			{
+				return Assembler.assemble(sourceFile[0]).getCodeSegmentSize();
+			}
+		});
+
+		final ObjectFile objectFile = Assembler.assemble(createSourceFile(lines));
+		final CountingOutputStream out = new CountingOutputStream();
+
+		//Includes linking (placement and patching), the boot header and writing the image
+		harness.measure("Linker.emit", lines.size(), new Harness.Workload()
+		{
+			@Override
+			public void prepare()
+			{
+				linker[0] = new Linker();
+				linker[0].linkObject(objectFile);
+			}
+
+			@Override
+			public long run() throws Exception
+			{
+				linker[0].emit(out);
+				return out.getCount();
+			}
+		});
+	}
+
+	private static void measureBootHeader(
+			final Harness harness
+			) throws Exception
+	{
+		harness.measure("BootHeader.assemble", 1, () ->
+		{
+			return new BootHeader().assemble(0x0200, "SYNTHETIC", "SYN").getSize();
+		});
+	}
+
+	private static SourceFile createSourceFile(
+			final List<String> lines
+			)
+	{
+		final SourceFile sourceFile = new SourceFile();
+
+		for(int i = 0; i < lines.size(); i++)
+		{
+			sourceFile.add(new SourceLine(lines.get(i), FILE_NAME, i + 1));
+		}
+
+		return sourceFile;
+	}
+
+	/**
+	 * @return The numeric literal of an argument (without its brackets), or `null` if it has none
+	 */
+	private static String getLiteral(
+			final String argument
+			)
+	{
+		final String literal = argument.startsWith("(") ? argument.substring(1, argument.length() - 1) : argument;
+
+		try
+		{
+			Utils.parseValue(literal);
+		}
+		catch(final NumberFormatException ex)
+		{
+			return null; //Not a literal (e.g. a register)
+		}
+
+		return literal;
+	}
+
+	/**
+	 * Discards the written bytes, only counting them
+	 */
+	private static final class CountingOutputStream extends OutputStream
+	{
+		private long _count = 0;
+
+		@Override
+		public void write(final int b)
+		{
+			_count++;
+		}
+
+		@Override
+		public void write(
+				final byte[] b,
+				final int offset,
+				final int length
+				)
+		{
+			_count += length;
+		}
+
+		long getCount()
+		{
+			return _count;
+		}
+	}
+}
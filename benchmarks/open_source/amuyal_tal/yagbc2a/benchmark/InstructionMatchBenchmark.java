@@ -0,0 +1,150 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.benchmark;
+
+import java.util.List;
+
+import open_source.amuyal_tal.yagbc2a.InstructionDataBase;
+import open_source.amuyal_tal.yagbc2a.language.instruction.InstructionTemplate;
+import open_source.amuyal_tal.yagbc2a.parsing.CommandTokens;
+import open_source.amuyal_tal.yagbc2a.parsing.SyntaxException;
+
+/**
+ * Measures the per-line cost of instruction selection.
+ *
+ * Compares {@link InstructionDataBase#match(CommandTokens)} against a linear scan over all of the
+ * templates, which is how the selection used to be done.
+ */
+public final class InstructionMatchBenchmark
+{
+	private static final String[] LINES =
+		{
+			"NOP",
+			"LD B,B",
+			"LD A,12",
+			"LD HL,0x1234",
+			"LD (0xC000),SP",
+			"LD A,(HL)",
+			"INC BC",
+			"DEC E",
+			"ADD HL,DE",
+			"XOR 1CH",
+			"CP 0",
+			"JP 0x150",
+			"CALL NZ,299",
+			"RET",
+			"RST 30H",
+			"PUSH BC",
+			"POP AF",
+			"RR D",
+			"SLA B",
+			"SWAP A",
+			"BIT 7,H",
+			"RES 3,(HL)",
+			"SET 0,(HL)",
+			"SET 7,A"
+		};
+
+	private static final int WARMUP_ROUNDS = 20;
+	private static final int MEASURED_ROUNDS = 20;
+	private static final int LINES_PER_ROUND = 200000;
+
+	public static void main(final String[] args) throws SyntaxException
+	{
+		final CommandTokens[] corpus = new CommandTokens[LINES.length];
+		for(int i = 0; i < corpus.length; i++)
+		{
+			corpus[i] = new CommandTokens(LINES[i]);
+
+			if(InstructionDataBase.match(corpus[i]) != linearMatch(corpus[i]))
+			{
+				throw new IllegalStateException("Selection mismatch for `" + LINES[i] + "`");
+			}
+		}
+
+		System.out.println(String.format(
+				"%d templates, %d distinct lines, %d lines per round",
+				InstructionDataBase.getTemplates().size(),
+				LINES.length,
+				LINES_PER_ROUND
+				));
+
+		System.out.println(String.format("linear scan: %8.1f ns/line", measure(corpus, false)));
+		System.out.println(String.format("indexed:     %8.1f ns/line", measure(corpus, true)));
+	}
+
+	private static double measure(
+			final CommandTokens[] corpus,
+			final boolean indexed
+			)
+	{
+		long best = Long.MAX_VALUE;
+		int sink = 0;
+
+		for(int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++)
+		{
+			final long start = System.nanoTime();
+
+			for(int i = 0; i < LINES_PER_ROUND; i++)
+			{
+				final CommandTokens tokens = corpus[i % corpus.length];
+				final InstructionTemplate match = indexed ? InstructionDataBase.match(tokens) : linearMatch(tokens);
+				sink += match.getSize();
+			}
+
+			final long elapsed = System.nanoTime() - start;
+			if(round >= WARMUP_ROUNDS)
+			{
+				best = Long.min(best, elapsed);
+			}
+		}
+
+		if(sink == 0)
+		{
+			System.out.println(); //Keeps the results alive
+		}
+
+		return (double)best / LINES_PER_ROUND;
+	}
+
+	/**
+	 * The selection algorithm prior to indexing
+	 */
+	private static InstructionTemplate linearMatch(final CommandTokens tokens)
+	{
+		final List<InstructionTemplate> templates = InstructionDataBase.getTemplates();
+
+		InstructionTemplate bestMatch = null;
+
+		for(final InstructionTemplate instructionTemplate : templates)
+		{
+			if(instructionTemplate.matches(tokens))
+			{
+				if(bestMatch == null || instructionTemplate.betterThan(bestMatch))
+				{
+					bestMatch = instructionTemplate;
+				}
+			}
+		}
+
+		return bestMatch;
+	}
+}
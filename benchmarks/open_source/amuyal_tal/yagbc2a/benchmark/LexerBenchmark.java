@@ -0,0 +1,166 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.benchmark;
+
+import open_source.amuyal_tal.yagbc2a.parsing.Lexer;
+import open_source.amuyal_tal.yagbc2a.parsing.TokenStream;
+
+/**
+ * Measures line-tokenization throughput.
+ *
+ * Compares {@link Lexer#tokenize(CharSequence)} against the string-rewriting normalization (followed by
+ * splitting) that was previously done for each line.
+ */
+public final class LexerBenchmark
+{
+	private static final String[] LINES =
+		{
+			"define string __program_name \"Test1\"",
+			"define byte twelve 000CH; 12 = 0x0C",
+			"",
+			"; A comment-only line",
+			"main:",
+			"\tLD B,B\t\t;0x40",
+			"\tCALL func1\t;0xCD8001",
+			"\tLD HL, SP + 17\t;0xF811",
+			"\tCALL NZ , 299\t;0xC42B01",
+			"again: INC B",
+			"\tLDH (0xFF08),A\t;0xE008",
+			"\tLD (0b10101100),SP\t;0x08AC00",
+			"func func1",
+			"\tXOR 1CH\t\t;0xEE1C",
+			"end"
+		};
+
+	private static final int WARMUP_ROUNDS = 20;
+	private static final int MEASURED_ROUNDS = 20;
+	private static final int LINES_PER_ROUND = 500000;
+
+	public static void main(final String[] args)
+	{
+		long charsPerRound = 0;
+		for(int i = 0; i < LINES_PER_ROUND; i++)
+		{
+			charsPerRound += LINES[i % LINES.length].length();
+		}
+
+		System.out.println(String.format(
+				"%d distinct lines, %d lines (%d characters) per round",
+				LINES.length,
+				LINES_PER_ROUND,
+				charsPerRound
+				));
+
+		report("string rewriting", measure(false), charsPerRound);
+		report("lexer", measure(true), charsPerRound);
+	}
+
+	private static void report(
+			final String name,
+			final long bestRoundNanos,
+			final long charsPerRound
+			)
+	{
+		final double seconds = bestRoundNanos / 1e9;
+
+		System.out.println(String.format(
+				"%-16s %8.1f ns/line, %6.2f M lines/s, %7.1f MB/s",
+				name + ":",
+				(double)bestRoundNanos / LINES_PER_ROUND,
+				LINES_PER_ROUND / seconds / 1e6,
+				charsPerRound / seconds / 1e6
+				));
+	}
+
+	private static long measure(
+			final boolean lexer
+			)
+	{
+		long best = Long.MAX_VALUE;
+		long sink = 0;
+
+		for(int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++)
+		{
+			final long start = System.nanoTime();
+
+			for(int i = 0; i < LINES_PER_ROUND; i++)
+			{
+				final String line = LINES[i % LINES.length];
+
+				if(lexer)
+				{
+					final TokenStream tokens = Lexer.tokenize(line);
+					sink += tokens.getTokensCount();
+				}
+				else
+				{
+					sink += rewriteAndSplit(line).length;
+				}
+			}
+
+			final long elapsed = System.nanoTime() - start;
+			if(round >= WARMUP_ROUNDS)
+			{
+				best = Long.min(best, elapsed);
+			}
+		}
+
+		if(sink == 0)
+		{
+			System.out.println(); //Keeps the results alive
+		}
+
+		return best;
+	}
+
+	/**
+	 * The normalization that was previously done by `SourceLine`, followed by the splitting that was
+	 * previously done by `CommandTokens`
+	 */
+	private static String[] rewriteAndSplit(final String text)
+	{
+		final String[] splitLine = text.split(";");
+		String content = (splitLine.length == 0) ? "" : splitLine[0];
+
+		content = content.replace('\t', ' ');
+
+		while(content.contains("  "))
+		{
+			content = content.replace("  ", " ");
+		}
+
+		content = content.replace(": ", ":");
+		content = content.replace(" :", ":");
+		content = content.replace(", ", ",");
+		content = content.replace(" ,", ",");
+		content = content.replace("+ ", "+");
+		content = content.replace(" +", "+");
+		content = content.replace("- ", "-");
+		content = content.replace(" -", "-");
+		content = content.replace("( ", "(");
+		content = content.replace(" )", ")");
+		content = content.trim();
+
+		final String[] words = content.split(" ");
+
+		return (words.length > 1) ? words[1].split(",") : words;
+	}
+}
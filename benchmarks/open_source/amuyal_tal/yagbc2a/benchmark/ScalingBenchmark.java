@@ -0,0 +1,181 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import open_source.amuyal_tal.yagbc2a.core.Assembler;
+import open_source.amuyal_tal.yagbc2a.core.object.ObjectFile;
+import open_source.amuyal_tal.yagbc2a.parsing.SourceFile;
+import open_source.amuyal_tal.yagbc2a.parsing.SourceLine;
+import open_source.amuyal_tal.yagbc2a.utils.Utils;
+
+/**
+ * Checks that assembly scales linearly with the size of the program: programs of doubling sizes (functions,
+ * labels and variables) are generated, and the time and the allocations per line are compared between the
+ * smallest program and the largest one.
+ *
+ * Usage: `ScalingBenchmark [--streaming]`
+ */
+public final class ScalingBenchmark
+{
+	private static final int[] FUNCTIONS_COUNTS = { 50, 100, 200, 400, 800 };
+	private static final int LABELS_PER_FUNCTION = 3;
+
+	private static final int WARMUP_ROUNDS = 3;
+	private static final int MEASURED_ROUNDS = 5;
+
+	/**
+	 * The largest growth (per line, from the smallest program to the largest one) that is considered linear
+	 */
+	private static final double LINEARITY_TOLERANCE = 1.5;
+
+	private static final String FILE_NAME = "synthetic.asm";
+
+	public static void main(final String[] args) throws Exception
+	{
+		final boolean isStreaming = (args.length > 0 && (args[0].equals("--streaming") || args[0].equals("-s")));
+
+		final Harness harness = new Harness(WARMUP_ROUNDS, MEASURED_ROUNDS);
+		final List<Double> timesPerLine = new ArrayList<Double>();
+		final List<Double> allocationsPerLine = new ArrayList<Double>();
+
+		for(final int functionsCount : FUNCTIONS_COUNTS)
+		{
+			final SyntheticProgram program = new SyntheticProgram(
+					functionsCount,
+					LABELS_PER_FUNCTION,
+					functionsCount //A variable per function
+					);
+			final List<String> lines = program.generate();
+
+			verify(program, lines, isStreaming);
+
+			System.out.println(String.format(
+					"%d functions, %d labels, %d variables:",
+					program.getFunctionsCount(),
+					program.getLabelsCount(),
+					program.getVariablesCount()
+					));
+
+			final SourceFile[] sourceFile = new SourceFile[1]; //Prepared for each run, as assembly consumes it
+
+			timesPerLine.add(harness.measure("assembly time", lines.size(), new Harness.Workload()
+			{
+				@Override
+				public void prepare()
+				{
+					sourceFile[0] = createSourceFile(lines);
+				}
+
+				@Override
+				public long run() throws Exception
+				{
+					return assemble(sourceFile[0], isStreaming).getCodeSegmentSize();
+				}
+			}));
+
+			final double allocatedBytesPerLine = (double)measureAllocatedBytes(lines, isStreaming) / lines.size();
+			allocationsPerLine.add(allocatedBytesPerLine);
+
+			System.out.println(String.format("%-48s %12.1f bytes/line", "assembly allocations @" + lines.size(), allocatedBytesPerLine));
+		}
+
+		System.out.println();
+		report("Time", timesPerLine);
+		report("Allocations", allocationsPerLine);
+	}
+
+	/**
+	 * Verifies that the program assembles, and is placed as the generator expects (otherwise, its relative
+	 * jumps would target wrong addresses)
+	 */
+	private static void verify(
+			final SyntheticProgram program,
+			final List<String> lines,
+			final boolean isStreaming
+			) throws Exception
+	{
+		final ObjectFile objectFile = assemble(createSourceFile(lines), isStreaming);
+
+		Utils.assertCondition(objectFile.getDataSegmentSize() == program.getDataSegmentSize());
+		Utils.assertCondition(objectFile.getCodeSegmentSize() == program.getCodeSegmentSize());
+	}
+
+	/**
+	 * @return The bytes allocated by a single assembly (excluding reading the lines)
+	 */
+	private static long measureAllocatedBytes(
+			final List<String> lines,
+			final boolean isStreaming
+			) throws Exception
+	{
+		final com.sun.management.ThreadMXBean threads =
+				(com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+		final SourceFile sourceFile = createSourceFile(lines);
+
+		final long start = threads.getCurrentThreadAllocatedBytes();
+		assemble(sourceFile, isStreaming);
+
+		return threads.getCurrentThreadAllocatedBytes() - start;
+	}
+
+	private static void report(
+			final String name,
+			final List<Double> valuesPerLine
+			)
+	{
+		final double growth = valuesPerLine.get(valuesPerLine.size() - 1) / valuesPerLine.get(0);
+
+		System.out.println(String.format(
+				"%s per line grows x%.2f from the smallest program to the largest one (%d times larger): %s",
+				name,
+				growth,
+				FUNCTIONS_COUNTS[FUNCTIONS_COUNTS.length - 1] / FUNCTIONS_COUNTS[0],
+				(growth <= LINEARITY_TOLERANCE) ? "linear" : "super-linear"
+				));
+	}
+
+	private static ObjectFile assemble(
+			final SourceFile sourceFile,
+			final boolean isStreaming
+			) throws Exception
+	{
+		return isStreaming ? Assembler.assembleStreaming(sourceFile) : Assembler.assemble(sourceFile);
+	}
+
+	private static SourceFile createSourceFile(
+			final List<String> lines
+			)
+	{
+		final SourceFile sourceFile = new SourceFile();
+
+		for(int i = 0; i < lines.size(); i++)
+		{
+			sourceFile.add(new SourceLine(lines.get(i), FILE_NAME, i + 1));
+		}
+
+		return sourceFile;
+	}
+}
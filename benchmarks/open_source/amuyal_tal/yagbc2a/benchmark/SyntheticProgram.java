@@ -0,0 +1,329 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import open_source.amuyal_tal.yagbc2a.core.object.cartridge.BootHeader;
+
+/**
+ * Generates valid programs of a controllable volume, as inputs for benchmarks and for scale testing.
+ *
+ * A program is composed of variable definitions (bytes, words and strings), a `main` label that calls each of
+ * the functions, and the functions. Each function is composed of blocks, each with a local label, that:
+ *  - load a variable by its address
+ *  - use the high memory (`LDH`)
+ *  - jump relatively backwards (to the block's label) and forwards (to the next block)
+ *  - jump absolutely to the block's label
+ *
+ * Relative jumps are given absolute addresses, thus the generator places the program exactly as the linker
+ * does (the boot header, followed by the data segment, followed by the code segment).
+ *
+ * Usage (as a stand-alone program): `SyntheticProgram <functions> <labels per function> <variables> <output file>`
+ */
+public final class SyntheticProgram
+{
+	private static final String PROGRAM_NAME = "SYNTHETIC";
+	private static final String MANUFACTURER_CODE = "SYN";
+
+	private static final int CALL_SIZE = 3;
+	private static final int HALT_SIZE = 1;
+	private static final int RET_SIZE = 1;
+	private static final int BLOCK_SIZE = 15; //The size of the instructions of a block (see `appendBlock`)
+
+	private static final int LINES_PER_BLOCK = 8; //A label and 7 instructions
+	private static final int LINES_PER_FUNCTION = 5; //Its call, an empty line, its declaration, its `RET` and its termination (excluding blocks)
+
+	/**
+	 * The labels per function of {@link #ofLinesCount(int)}
+	 */
+	private static final int DEFAULT_LABELS_PER_FUNCTION = 2;
+
+	/**
+	 * The largest amount of lines a program of {@link #ofLinesCount(int)} may have, as its code must fit in
+	 * the 16-bit address space
+	 */
+	public static final int MAXIMAL_LINES_COUNT = 20000;
+
+	/**
+	 * The instructions of a block (and of a call), once their symbols are resolved (i.e. as they are matched
+	 * against the instruction templates)
+	 */
+	private static final String[] RESOLVED_INSTRUCTIONS =
+		{
+			"CALL 0x0200",
+			"LD A,(0x0150)",
+			"LDH (0x80),A",
+			"LDH A,(0x81)",
+			"INC B",
+			"JR NZ,0",
+			"JR Z,0",
+			"JP NZ,0x0201",
+			"RET"
+		};
+
+	private final int _functionsCount;
+	private final int _labelsPerFunction;
+	private final int _variablesCount;
+
+	public SyntheticProgram(
+			final int functionsCount,
+			final int labelsPerFunction,
+			final int variablesCount
+			)
+	{
+		_functionsCount = Integer.max(1, functionsCount);
+		_labelsPerFunction = Integer.max(1, labelsPerFunction);
+		_variablesCount = Integer.max(1, variablesCount);
+	}
+
+	/**
+	 * @return A program with (about) the given amount of lines
+	 */
+	public static SyntheticProgram ofLinesCount(
+			final int linesCount
+			)
+	{
+		final int functionLinesCount = DEFAULT_LABELS_PER_FUNCTION * LINES_PER_BLOCK + LINES_PER_FUNCTION;
+		final int functionsCount = linesCount * 4 / (functionLinesCount * 4 + 1); //A variable per 4 functions
+
+		return new SyntheticProgram(functionsCount, DEFAULT_LABELS_PER_FUNCTION, functionsCount / 4);
+	}
+
+	/**
+	 * @return The lines of a program with (about) the given amount of lines
+	 */
+	public static List<String> generate(
+			final int linesCount
+			)
+	{
+		return ofLinesCount(linesCount).generate();
+	}
+
+	public static void main(final String[] args) throws Exception
+	{
+		if(args.length != 4)
+		{
+			System.out.println("Usage: SyntheticProgram <functions> <labels per function> <variables> <output file>");
+			System.exit(1);
+		}
+
+		final SyntheticProgram program = new SyntheticProgram(
+				Integer.parseInt(args[0]),
+				Integer.parseInt(args[1]),
+				Integer.parseInt(args[2])
+				);
+
+		Files.write(Paths.get(args[3]), program.generate(), StandardCharsets.UTF_8);
+	}
+
+	public int getFunctionsCount()
+	{
+		return _functionsCount;
+	}
+
+	public int getLabelsCount()
+	{
+		return _functionsCount * _labelsPerFunction;
+	}
+
+	public int getVariablesCount()
+	{
+		return _variablesCount;
+	}
+
+	public int getDataSegmentSize()
+	{
+		int size = (PROGRAM_NAME.length() + 1) + (MANUFACTURER_CODE.length() + 1);
+
+		for(int i = 0; i < _variablesCount; i++)
+		{
+			size += getVariableSize(i);
+		}
+
+		return size;
+	}
+
+	public int getCodeSegmentSize()
+	{
+		return getFunctionAddress(_functionsCount);
+	}
+
+	public List<String> generate()
+	{
+		final List<String> lines = new ArrayList<String>();
+
+		lines.add("define string __program_name \"" + PROGRAM_NAME + "\"");
+		lines.add("define string __manufacturer_code \"" + MANUFACTURER_CODE + "\"");
+		for(int i = 0; i < _variablesCount; i++)
+		{
+			lines.add(getVariableDefinition(i));
+		}
+
+		lines.add("");
+		lines.add("main:");
+		for(int i = 0; i < _functionsCount; i++)
+		{
+			lines.add("\tCALL function" + i);
+		}
+		lines.add("\tHALT");
+
+		final int codeSegmentAddress = BootHeader.getSize() + getDataSegmentSize();
+
+		for(int i = 0; i < _functionsCount; i++)
+		{
+			lines.add("");
+			lines.add("func function" + i);
+
+			for(int j = 0; j < _labelsPerFunction; j++)
+			{
+				final int blockAddress = codeSegmentAddress + getFunctionAddress(i) + j * BLOCK_SIZE;
+				appendBlock(lines, i * _labelsPerFunction + j, j, blockAddress);
+			}
+
+			lines.add("\tRET");
+			lines.add("end");
+		}
+
+		return lines;
+	}
+
+	/**
+	 * @param blockIndex The index of the block in the program
+	 * @param labelIndex The index of the block in its function
+	 * @param blockAddress The address of the block in the image
+	 */
+	private void appendBlock(
+			final List<String> lines,
+			final int blockIndex,
+			final int labelIndex,
+			final int blockAddress
+			)
+	{
+		final int nextBlockAddress = blockAddress + BLOCK_SIZE; //The next block, or the function's `RET`
+		final int highAddress = 0xFF80 + (blockIndex % 0x7F);
+
+		lines.add("label" + labelIndex + ":");
+		lines.add("\tLD A,&variable" + (blockIndex % _variablesCount));	//3 bytes
+		lines.add("\tLDH (" + toHexadecimal(highAddress) + "),A");			//2 bytes
+		lines.add("\tLDH A,(" + toHexadecimal(highAddress) + ")");			//2 bytes
+		lines.add("\tINC B");												//1 byte
+		lines.add("\tJR NZ," + toHexadecimal(blockAddress));				//2 bytes, backwards
+		lines.add("\tJR Z," + toHexadecimal(nextBlockAddress));				//2 bytes, forwards
+		lines.add("\tJP NZ,label" + labelIndex);							//3 bytes
+	}
+
+	/**
+	 * @return The address of a function in the code segment
+	 */
+	private int getFunctionAddress(
+			final int functionIndex
+			)
+	{
+		final int mainSize = _functionsCount * CALL_SIZE + HALT_SIZE;
+
+		return mainSize + functionIndex * (_labelsPerFunction * BLOCK_SIZE + RET_SIZE);
+	}
+
+	private static String getVariableDefinition(
+			final int variableIndex
+			)
+	{
+		switch(variableIndex % 3)
+		{
+			case 0:
+			{
+				return "define byte variable" + variableIndex + " " + (variableIndex % 0x100);
+			}
+
+			case 1:
+			{
+				return "define word variable" + variableIndex + " " + toHexadecimal(variableIndex % 0x10000);
+			}
+
+			default:
+			{
+				return "define string variable" + variableIndex + " \"" + getStringValue(variableIndex) + "\"";
+			}
+		}
+	}
+
+	private static int getVariableSize(
+			final int variableIndex
+			)
+	{
+		switch(variableIndex % 3)
+		{
+			case 0:
+			{
+				return 1;
+			}
+
+			case 1:
+			{
+				return 2;
+			}
+
+			default:
+			{
+				return getStringValue(variableIndex).length() + 1; //Null-terminated
+			}
+		}
+	}
+
+	private static String getStringValue(
+			final int variableIndex
+			)
+	{
+		return "string" + variableIndex;
+	}
+
+	/**
+	 * @return A hexadecimal literal (with a post-fix)
+	 */
+	private static String toHexadecimal(
+			final int value
+			)
+	{
+		return String.format("0%04XH", value);
+	}
+
+	/**
+	 * @return The given amount of instructions, whose symbols are already resolved
+	 */
+	public static List<String> generateResolvedInstructions(
+			final int instructionsCount
+			)
+	{
+		final List<String> instructions = new ArrayList<String>(instructionsCount);
+
+		for(int i = 0; i < instructionsCount; i++)
+		{
+			instructions.add(RESOLVED_INSTRUCTIONS[i % RESOLVED_INSTRUCTIONS.length]);
+		}
+
+		return instructions;
+	}
+}
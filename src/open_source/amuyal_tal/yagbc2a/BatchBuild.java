@@ -0,0 +1,351 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import open_source.amuyal_tal.yagbc2a.core.AssemblyTask;
+import open_source.amuyal_tal.yagbc2a.core.BuildCache;
+import open_source.amuyal_tal.yagbc2a.core.Linker;
+import open_source.amuyal_tal.yagbc2a.core.object.ObjectFile;
+import open_source.amuyal_tal.yagbc2a.utils.Utils;
+
+/**
+ * Builds many independent programs (an image per source file) in a single process, on a pool of threads.
+ *
+ * The sources are either all of the source files in a directory, or the files listed by a manifest: a text
+ * file with a source file per line, optionally followed by the path of its image (empty lines and lines that
+ * start with `#` are ignored). Unless given, an image is placed next to its source file (or in the output
+ * directory), with the image extension.
+ *
+ * A summary line is printed per source file, in the order of the sources.
+ */
+public final class BatchBuild
+{
+	public static final String BATCH_FLAG = "--batch";
+
+	private static final String SOURCE_FILE_EXTENSION = ".asm";
+	private static final String IMAGE_FILE_EXTENSION = ".gb";
+	private static final String MANIFEST_COMMENT = "#";
+
+	/**
+	 * Runs a batch, as described by command-line arguments:
+	 * `--batch <directory or manifest> [--output-dir <directory>] [--jobs <count>] [--streaming] [--cache <directory>]`
+	 *
+	 * @return Whether all of the programs were built
+	 */
+	public static boolean run(final String[] args)
+	{
+		try
+		{
+			if(args.length < 2)
+			{
+				System.out.println("Missing directory or manifest");
+				throw new HandledException();
+			}
+
+			final String inputPath = args[1];
+			String outputDirectoryPath = null; //Next to the sources
+			int jobsCount = Runtime.getRuntime().availableProcessors();
+			boolean isStreaming = false;
+			BuildCache buildCache = null;
+
+			for(int i = 2; i < args.length; i++)
+			{
+				switch(args[i])
+				{
+					case "--output-dir":
+					{
+						i++;
+						if(i < args.length)
+						{
+							outputDirectoryPath = args[i];
+						}
+						else
+						{
+							System.out.println("Missing output directory name");
+							throw new HandledException();
+						}
+					}
+					break;
+
+					case "--jobs":
+					case "-j":
+					{
+						i++;
+						if(i < args.length && args[i].matches("[1-9][0-9]*"))
+						{
+							jobsCount = Integer.parseInt(args[i]);
+						}
+						else
+						{
+							System.out.println("Missing (positive) jobs count");
+							throw new HandledException();
+						}
+					}
+					break;
+
+					case "--streaming":
+					case "-s":
+					{
+						isStreaming = true;
+					}
+					break;
+
+					case "--cache":
+					{
+						i++;
+						if(i < args.length)
+						{
+							buildCache = new BuildCache(args[i], Main.VERSION);
+						}
+						else
+						{
+							System.out.println("Missing cache directory name");
+							throw new HandledException();
+						}
+					}
+					break;
+
+					default:
+					{
+						System.out.println("Unknown flag \'" + args[i] + "\'");
+						throw new HandledException();
+					}
+				}
+			}
+
+			final List<String[]> programs = listPrograms(inputPath, outputDirectoryPath); //Pairs of source file and image file
+
+			final ForkJoinPool pool = new ForkJoinPool(jobsCount);
+			final List<Job> jobs = new ArrayList<Job>();
+
+			for(final String[] program : programs)
+			{
+				final Job job = new Job(program[0], program[1], isStreaming, buildCache);
+				pool.execute(job);
+				jobs.add(job);
+			}
+
+			int builtCount = 0;
+			for(final Job job : jobs)
+			{
+				final boolean isBuilt = job.join();
+
+				if(isBuilt)
+				{
+					builtCount++;
+				}
+
+				System.out.println(String.format(
+						"%s: %s (%d ms)",
+						job.getSourceFilePath(),
+						isBuilt ? "built" : "failed",
+						job.getDuration() / 1000000
+						));
+			}
+
+			pool.shutdown();
+
+			System.out.println(String.format(
+					"%d programs, %d built, %d failed",
+					jobs.size(),
+					builtCount,
+					jobs.size() - builtCount
+					));
+
+			return builtCount == jobs.size();
+		}
+		catch(final HandledException ex)
+		{
+			//An error accrued and a proper message has been displayed
+		}
+		catch(final Throwable throwable)
+		{
+			Utils.displayError(throwable);
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return Pairs of a source file's path and its image's path
+	 */
+	private static List<String[]> listPrograms(
+			final String inputPath,
+			final String outputDirectoryPath
+			) throws HandledException
+	{
+		final List<String[]> programs = new ArrayList<String[]>();
+
+		try
+		{
+			final Path input = Paths.get(inputPath);
+
+			if(Files.isDirectory(input))
+			{
+				final List<String> sourceFilesPaths = new ArrayList<String>();
+				for(final File file : input.toFile().listFiles())
+				{
+					if(file.isFile() && file.getName().endsWith(SOURCE_FILE_EXTENSION))
+					{
+						sourceFilesPaths.add(file.getPath());
+					}
+				}
+				Collections.sort(sourceFilesPaths);
+
+				for(final String sourceFilePath : sourceFilesPaths)
+				{
+					programs.add(new String[] { sourceFilePath, getImageFilePath(sourceFilePath, outputDirectoryPath) });
+				}
+			}
+			else
+			{
+				for(final String line : Files.readAllLines(input, StandardCharsets.UTF_8))
+				{
+					final String entry = line.trim();
+					if(entry.isEmpty() || entry.startsWith(MANIFEST_COMMENT))
+					{
+						continue;
+					}
+
+					final String[] parts = entry.split("\\s+");
+					if(parts.length > 2)
+					{
+						System.out.println(String.format("Unrecognized manifest entry `%s`", entry));
+						throw new HandledException();
+					}
+
+					programs.add(new String[] {
+							parts[0],
+							(parts.length == 2) ? parts[1] : getImageFilePath(parts[0], outputDirectoryPath)
+							});
+				}
+			}
+		}
+		catch(final HandledException ex)
+		{
+			throw ex;
+		}
+		catch(final Throwable throwable)
+		{
+			Utils.displayError(throwable);
+
+			throw new HandledException();
+		}
+
+		return programs;
+	}
+
+	private static String getImageFilePath(
+			final String sourceFilePath,
+			final String outputDirectoryPath
+			)
+	{
+		final File sourceFile = new File(sourceFilePath);
+		String name = sourceFile.getName();
+
+		if(name.endsWith(SOURCE_FILE_EXTENSION))
+		{
+			name = name.substring(0, name.length() - SOURCE_FILE_EXTENSION.length());
+		}
+
+		final File directory = (outputDirectoryPath != null) ? new File(outputDirectoryPath) : sourceFile.getParentFile();
+
+		return new File(directory, name + IMAGE_FILE_EXTENSION).getPath();
+	}
+
+	/**
+	 * Builds a single program
+	 */
+	private static final class Job extends RecursiveTask<Boolean>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String _sourceFilePath;
+		private final String _imageFilePath;
+		private final boolean _isStreaming;
+		private final BuildCache _buildCache;
+		private long _duration; //In nanoseconds
+
+		private Job(
+				final String sourceFilePath,
+				final String imageFilePath,
+				final boolean isStreaming,
+				final BuildCache buildCache
+				)
+		{
+			_sourceFilePath = sourceFilePath;
+			_imageFilePath = imageFilePath;
+			_isStreaming = isStreaming;
+			_buildCache = buildCache;
+			_duration = 0;
+		}
+
+		public String getSourceFilePath()
+		{
+			return _sourceFilePath;
+		}
+
+		public long getDuration()
+		{
+			return _duration;
+		}
+
+		@Override
+		protected Boolean compute()
+		{
+			final long start = System.nanoTime();
+
+			try
+			{
+				final ObjectFile objectFile = new AssemblyTask(_sourceFilePath, _isStreaming, _buildCache).invoke();
+				if(objectFile == null)
+				{
+					return false; //A proper message has been displayed
+				}
+
+				final Linker linker = new Linker();
+				linker.linkObject(objectFile);
+				linker.emit(_imageFilePath);
+
+				return true;
+			}
+			catch(final HandledException | InternalErrorException ex)
+			{
+				return false; //An error accrued and a proper message has been displayed
+			}
+			finally
+			{
+				_duration = System.nanoTime() - start;
+			}
+		}
+	}
+}
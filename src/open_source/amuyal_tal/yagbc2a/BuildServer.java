@@ -0,0 +1,224 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+import open_source.amuyal_tal.yagbc2a.core.BuildCache;
+import open_source.amuyal_tal.yagbc2a.utils.Utils;
+
+/**
+ * Keeps the assembler resident, so consecutive builds share a warm JVM (initialized databases and compiled
+ * code) and an in-memory cache of objects (thus only changed source files are re-assembled).
+ *
+ * The server reads requests from the standard input, or from connections to a local port (one connection at
+ * a time). Each request is a single line of the same arguments as a build's command line, separated by
+ * white-spaces (thus paths may not contain white-spaces, and relative paths are relative to the server's
+ * working directory). The response is the build's messages, followed by a status line: {@value #SUCCESS_STATUS}
+ * or {@value #FAILURE_STATUS}. The request {@value #SHUTDOWN_REQUEST} stops the server.
+ */
+public final class BuildServer implements AutoCloseable
+{
+	public static final String SERVER_FLAG = "--server";
+
+	public static final String SUCCESS_STATUS = "@ok";
+	public static final String FAILURE_STATUS = "@failed";
+	public static final String SHUTDOWN_REQUEST = "@shutdown";
+
+	/**
+	 * Runs a server, as described by command-line arguments: `--server [--port <port>] [--cache <directory>]`
+	 */
+	public static void run(final String[] args)
+	{
+		try
+		{
+			int port = -1; //Standard input
+			String cacheDirectoryPath = null; //In memory only
+
+			for(int i = 1; i < args.length; i++)
+			{
+				switch(args[i])
+				{
+					case "--port":
+					{
+						i++;
+						if(i < args.length)
+						{
+							port = Integer.parseInt(args[i]);
+						}
+						else
+						{
+							System.out.println("Missing port number");
+							throw new HandledException();
+						}
+					}
+					break;
+
+					case "--cache":
+					{
+						i++;
+						if(i < args.length)
+						{
+							cacheDirectoryPath = args[i];
+						}
+						else
+						{
+							System.out.println("Missing cache directory name");
+							throw new HandledException();
+						}
+					}
+					break;
+
+					default:
+					{
+						System.out.println("Unknown flag \'" + args[i] + "\'");
+						throw new HandledException();
+					}
+				}
+			}
+
+			try(final BuildServer server = new BuildServer(new BuildCache(cacheDirectoryPath, Main.VERSION)))
+			{
+				if(port < 0)
+				{
+					server.serve(System.in, System.out);
+				}
+				else
+				{
+					server.serve(port);
+				}
+			}
+		}
+		catch(final HandledException ex)
+		{
+			//An error accrued and a proper message has been displayed
+		}
+		catch(final Throwable throwable)
+		{
+			Utils.displayError(throwable);
+		}
+	}
+
+	private final BuildCache _buildCache;
+	private final ForkJoinPool _pool; //Shared by the builds, rather than started per request
+	private boolean _isShutDown;
+
+	public BuildServer(
+			final BuildCache buildCache
+			)
+	{
+		_buildCache = buildCache;
+		_pool = new ForkJoinPool();
+		_isShutDown = false;
+	}
+
+	@Override
+	public void close()
+	{
+		_pool.shutdown();
+	}
+
+	/**
+	 * Serves the connections of a local (loopback) port, one connection at a time, until a shutdown request
+	 */
+	public void serve(
+			final int port
+			) throws IOException
+	{
+		try(final ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress()))
+		{
+			while(_isShutDown == false)
+			{
+				try(final Socket socket = serverSocket.accept())
+				{
+					serve(
+							socket.getInputStream(),
+							new PrintStream(socket.getOutputStream(), false, StandardCharsets.UTF_8.name())
+							);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Serves the requests of a stream, until the stream ends or a shutdown request
+	 */
+	public void serve(
+			final InputStream in,
+			final PrintStream out
+			) throws IOException
+	{
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+		for(String line; _isShutDown == false && (line = reader.readLine()) != null; )
+		{
+			final String request = line.trim();
+
+			if(request.isEmpty())
+			{
+				continue;
+			}
+
+			boolean isSuccessful = true;
+
+			if(request.equals(SHUTDOWN_REQUEST))
+			{
+				_isShutDown = true;
+			}
+			else
+			{
+				isSuccessful = build(request.split("\\s+"), out);
+			}
+
+			out.println(isSuccessful ? SUCCESS_STATUS : FAILURE_STATUS);
+			out.flush();
+		}
+	}
+
+	private boolean build(
+			final String[] args,
+			final PrintStream out
+			)
+	{
+		//The build's messages are the response
+		final PrintStream standardOut = System.out;
+		System.setOut(out);
+
+		try
+		{
+			return Main.build(args, _buildCache, false, null, _pool); //The standard input and error aren't the request's
+		}
+		finally
+		{
+			System.out.flush();
+			System.setOut(standardOut);
+		}
+	}
+}
@@ -20,8 +20,12 @@
 
 package open_source.amuyal_tal.yagbc2a;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import open_source.amuyal_tal.yagbc2a.language.instruction.FlagInfluance;
 import open_source.amuyal_tal.yagbc2a.language.instruction.InstructionTemplate;
@@ -35,11 +39,18 @@ public final class InstructionDataBase
 		//Static class
 	}
 
+	private static final InstructionTemplate[] NO_TEMPLATES = new InstructionTemplate[0];
+
 	private static final List<InstructionTemplate> _database;
 
+	/**
+	 * Templates by upper-cased command, then by parameters count
+	 */
+	private static final Map<String, InstructionTemplate[][]> _index;
+
 	static
 	{
-		_database = new LinkedList<InstructionTemplate>();
+		_database = new ArrayList<InstructionTemplate>();
 
 		_database.add(new InstructionTemplate(0x00, "NOP", 4, FlagInfluance.NONE, FlagInfluance.NONE, FlagInfluance.NONE, FlagInfluance.NONE, ""));
 		_database.add(new InstructionTemplate(0x01, "LD", 12, FlagInfluance.NONE, FlagInfluance.NONE, FlagInfluance.NONE, FlagInfluance.NONE, "BC,d16"));
@@ -553,15 +564,89 @@ public final class InstructionDataBase
 		_database.add(new InstructionTemplate(0xCBFD, "SET", 8, FlagInfluance.NONE, FlagInfluance.NONE, FlagInfluance.NONE, FlagInfluance.NONE, "7,L"));
 		_database.add(new InstructionTemplate(0xCBFE, "SET", 16, FlagInfluance.NONE, FlagInfluance.NONE, FlagInfluance.NONE, FlagInfluance.NONE, "7,(HL)"));
 		_database.add(new InstructionTemplate(0xCBFF, "SET", 8, FlagInfluance.NONE, FlagInfluance.NONE, FlagInfluance.NONE, FlagInfluance.NONE, "7,A"));
+
+		_index = buildIndex(_database);
+	}
+
+	private static Map<String, InstructionTemplate[][]> buildIndex(
+			final List<InstructionTemplate> templates
+			)
+	{
+		final Map<String, List<List<InstructionTemplate>>> grouped = new HashMap<String, List<List<InstructionTemplate>>>();
+
+		for(final InstructionTemplate instructionTemplate : templates)
+		{
+			final String key = toKey(instructionTemplate.getCommand());
+
+			List<List<InstructionTemplate>> byArity = grouped.get(key);
+			if(byArity == null)
+			{
+				byArity = new ArrayList<List<InstructionTemplate>>();
+				grouped.put(key, byArity);
+			}
+
+			final int arity = instructionTemplate.getParametersCount();
+			while(byArity.size() <= arity)
+			{
+				byArity.add(new ArrayList<InstructionTemplate>());
+			}
+
+			byArity.get(arity).add(instructionTemplate); //Database order is kept, as the first match wins
+		}
+
+		final Map<String, InstructionTemplate[][]> index = new HashMap<String, InstructionTemplate[][]>();
+
+		for(final Map.Entry<String, List<List<InstructionTemplate>>> entry : grouped.entrySet())
+		{
+			final List<List<InstructionTemplate>> byArity = entry.getValue();
+			final InstructionTemplate[][] candidates = new InstructionTemplate[byArity.size()][];
+
+			for(int arity = 0; arity < candidates.length; arity++)
+			{
+				candidates[arity] = byArity.get(arity).toArray(NO_TEMPLATES);
+			}
+
+			index.put(entry.getKey(), candidates);
+		}
+
+		return index;
+	}
+
+	private static String toKey(final String commandName)
+	{
+		return commandName.toUpperCase(Locale.ROOT); //Returns the same instance for already upper-cased commands
+	}
+
+	private static InstructionTemplate[] getCandidates(
+			final String commandName,
+			final int parametersCount
+			)
+	{
+		final InstructionTemplate[][] byArity = _index.get(toKey(commandName));
+
+		if(byArity == null || parametersCount >= byArity.length)
+		{
+			return NO_TEMPLATES;
+		}
+
+		return byArity[parametersCount];
+	}
+
+	/**
+	 * @return All of the known templates, in database order
+	 */
+	public static List<InstructionTemplate> getTemplates()
+	{
+		return Collections.unmodifiableList(_database);
 	}
 
 	public static InstructionTemplate match(final CommandTokens tokens)
 	{
 		InstructionTemplate bestMatch = null;
 
-		for(final InstructionTemplate instructionTemplate : _database)
+		for(final InstructionTemplate instructionTemplate : getCandidates(tokens.getCommand(), tokens.getArgumentsCount()))
 		{
-			if(instructionTemplate.matches(tokens))
+			if(instructionTemplate.matchesArguments(tokens))
 			{
 				if(bestMatch == null || instructionTemplate.betterThan(bestMatch))
 				{
@@ -575,29 +660,27 @@ public final class InstructionDataBase
 
 	public static boolean isCommandRecognized(final String commandName)
 	{
-		for(final InstructionTemplate instructionTemplate : _database)
-		{
-			if(instructionTemplate.getCommand().equalsIgnoreCase(commandName))
-			{
-				return true;
-			}
-		}
-
-		return false;
+		return _index.containsKey(toKey(commandName));
 	}
 
 	public static int getFirstUnrecognizedParameterIndex(final CommandTokens tokens)
 	{
 		int i = 0;
 
-		for(final InstructionTemplate instructionTemplate : _database)
+		final InstructionTemplate[][] byArity = _index.get(toKey(tokens.getCommand()));
+		if(byArity == null)
+		{
+			return i;
+		}
+
+		for(final InstructionTemplate[] candidates : byArity)
 		{
-			if(instructionTemplate.getCommand().equalsIgnoreCase(tokens.getCommand()))
+			for(final InstructionTemplate instructionTemplate : candidates)
 			{
 				for(int j = 0; j < instructionTemplate.getParametersCount(); j++)
 				{
 					final Operand parameter = instructionTemplate.getParameter(j);
-					if(parameter.matches(tokens.getArgument(j)))
+					if(tokens.getClassifiedArgument(j).isMatchedBy(parameter))
 					{
 						i = Integer.max(i, j + 1);
 					}
@@ -20,8 +20,14 @@
 
 package open_source.amuyal_tal.yagbc2a;
 
-public class InternalErrorException extends Exception
+/**
+ * A violated assumption of the assembler (rather than an error of the assembled program). It fails the build
+ * that it occurs in, but not the process, which may serve other builds (e.g. a build server).
+ */
+public class InternalErrorException extends RuntimeException
 {
+	private static final long serialVersionUID = 1L;
+
 	public InternalErrorException(
 			final Throwable throwable
 			)
@@ -20,10 +20,20 @@
 
 package open_source.amuyal_tal.yagbc2a;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
-import open_source.amuyal_tal.yagbc2a.core.Assembler;
+import open_source.amuyal_tal.yagbc2a.core.AssemblyTask;
+import open_source.amuyal_tal.yagbc2a.core.BuildCache;
+import open_source.amuyal_tal.yagbc2a.core.BuildStatistics;
 import open_source.amuyal_tal.yagbc2a.core.Linker;
+import open_source.amuyal_tal.yagbc2a.core.object.ObjectFile;
+import open_source.amuyal_tal.yagbc2a.core.object.ObjectFileFormat;
 import open_source.amuyal_tal.yagbc2a.parsing.SourceFile;
 import open_source.amuyal_tal.yagbc2a.utils.Utils;
 
@@ -32,6 +42,15 @@ import open_source.amuyal_tal.yagbc2a.utils.Utils;
  */
 public final class Main
 {
+	/**
+	 * A path that stands for the standard stream instead of a file
+	 */
+	private static final String STANDARD_STREAM_PATH = "-";
+
+	private static final String DEFAULT_IMAGE_PATH = "a.gb";
+
+	static final String VERSION = "0.1";
+
 	/**
 	 * @param args
 	 * @throws IOException
@@ -44,29 +63,83 @@ public final class Main
 			System.exit(0);
 		}
 
-		try
+		if(args[0].equals(BuildServer.SERVER_FLAG))
 		{
-			String destFilePath = "a.gb";
+			BuildServer.run(args);
+		}
+		else if(args[0].equals(BatchBuild.BATCH_FLAG))
+		{
+			if(BatchBuild.run(args) == false)
+			{
+				System.exit(1); //Some of the programs weren't built
+			}
+		}
+		else
+		{
+			final ForkJoinPool pool = new ForkJoinPool();
+			boolean isBuilt = false;
 
-			//Verify parameters
+			try
+			{
+				isBuilt = build(args, null, true, System.err, pool);
+			}
+			finally
+			{
+				pool.shutdown();
+			}
 
-			if(args.length < 1)
+			if(isBuilt == false)
 			{
-				System.out.println("No source file is provided");
-				throw new HandledException();
+				System.exit(1); //The build failed
 			}
+		}
+	}
 
-			final String sourceFilePath = args[0];
+	/**
+	 * Runs a single build, as described by command-line arguments
+	 *
+	 * @param defaultBuildCache The cache to be used, unless the arguments specify one (may be `null`)
+	 * @param isStandardInputAvailable Whether the standard input may be given as a source file
+	 * @param errorStream Where statistics are printed when the image is written to the standard stream (`null` if
+	 *  there is no such stream, in which case they can't be printed together)
+	 * @param pool Assembles the source files concurrently (owned by the caller, thus shared by its builds)
+	 * @return Whether the build succeeded
+	 */
+	static boolean build(
+			final String[] args,
+			final BuildCache defaultBuildCache,
+			final boolean isStandardInputAvailable,
+			final PrintStream errorStream,
+			final ForkJoinPool pool
+			)
+	{
+		try
+		{
+			String destFilePath = null; //Default depends on the mode
+			boolean isStreaming = false;
+			boolean isAssemblyOnly = false; //Write object files instead of linking
+			BuildCache buildCache = defaultBuildCache;
+			boolean isPrintingStatistics = false;
+			String statisticsFilePath = null; //Statistics are written as JSON, if given
+			final List<String> inputFilesPaths = new ArrayList<String>(); //Source files and object files
 
-			for(int i = 1; i < args.length; i++)
+			//Verify parameters
+
+			for(int i = 0; i < args.length; i++)
 			{
+				if(args[i].startsWith("-") == false || args[i].equals(SourceFile.STANDARD_INPUT_PATH))
+				{
+					inputFilesPaths.add(args[i]);
+					continue;
+				}
+
 				switch(args[i])
 				{
 					case "--version":
 					case "-v":
 					{
-						System.out.println("YAGBC2A - Version 0.1");
-						throw new HandledException();
+						System.out.println("YAGBC2A - Version " + VERSION);
+						return true; //Nothing to build
 					}
 
 					case "--output":
@@ -85,6 +158,56 @@ public final class Main
 					}
 					break;
 
+					case "--streaming":
+					case "-s":
+					{
+						isStreaming = true;
+					}
+					break;
+
+					case "--assemble-only":
+					case "-c":
+					{
+						isAssemblyOnly = true;
+					}
+					break;
+
+					case "--cache":
+					{
+						i++;
+						if(i < args.length)
+						{
+							buildCache = new BuildCache(args[i], VERSION);
+						}
+						else
+						{
+							System.out.println("Missing cache directory name");
+							throw new HandledException();
+						}
+					}
+					break;
+
+					case "--stats":
+					{
+						isPrintingStatistics = true;
+					}
+					break;
+
+					case "--stats-json":
+					{
+						i++;
+						if(i < args.length)
+						{
+							statisticsFilePath = args[i];
+						}
+						else
+						{
+							System.out.println("Missing statistics file name");
+							throw new HandledException();
+						}
+					}
+					break;
+
 					default:
 					{
 						System.out.println("Unknown flag \'" + args[i] + "\'");
@@ -93,28 +216,142 @@ public final class Main
 				}
 			}
 
+			if(inputFilesPaths.isEmpty())
+			{
+				System.out.println("No source file is provided");
+				throw new HandledException();
+			}
+
+			if(isAssemblyOnly && destFilePath != null && inputFilesPaths.size() > 1)
+			{
+				System.out.println("An output file name can't be given for multiple object files");
+				throw new HandledException();
+			}
+
+			final int standardInputsCount = Collections.frequency(inputFilesPaths, SourceFile.STANDARD_INPUT_PATH);
+
+			if(standardInputsCount > 0 && isStandardInputAvailable == false)
+			{
+				System.out.println("The standard input can't be assembled by a build server");
+				throw new HandledException();
+			}
+
+			final boolean isImageOnStandardStream = (isAssemblyOnly == false) && STANDARD_STREAM_PATH.equals(destFilePath);
+			final boolean isStatisticsOnStandardStream = isPrintingStatistics || STANDARD_STREAM_PATH.equals(statisticsFilePath);
+
+			if(isImageOnStandardStream && isStatisticsOnStandardStream && errorStream == null)
+			{
+				System.out.println("Statistics can't be printed to the standard stream along with the image");
+				throw new HandledException();
+			}
+
+			if(standardInputsCount > 1)
+			{
+				System.out.println("The standard input can be given only once");
+				throw new HandledException();
+			}
+
+			if(isAssemblyOnly && destFilePath == null && standardInputsCount > 0)
+			{
+				System.out.println("An output file name must be given for the object file of the standard input");
+				throw new HandledException();
+			}
+
 			//TODO: Verify source-file path format
 			//TODO: Verify source-file existence
 
 			//TODO: Verify destination-file path format
 
 			//TODO: Warn if destination-file exists (shall be overridden)
-			//TODO: Check if existing file is up to date
 
 			//End of parameters verification
 
-			final SourceFile sourceFile = new SourceFile();
-			sourceFile.readFile(sourceFilePath);
+			final BuildStatistics statistics = (isPrintingStatistics || statisticsFilePath != null) ?
+					new BuildStatistics() :
+					null;
+
+			//The source files are independent, thus they are assembled concurrently
+			final List<AssemblyTask> tasks = new ArrayList<AssemblyTask>();
+
+			for(final String inputFilePath : inputFilesPaths)
+			{
+				if(isObjectFile(inputFilePath))
+				{
+					tasks.add(null); //Previously assembled
+				}
+				else
+				{
+					if(statistics != null)
+					{
+						statistics.addUnit(inputFilePath.equals(SourceFile.STANDARD_INPUT_PATH) ? //Figures are displayed in the order of the input files
+								SourceFile.STANDARD_INPUT_NAME :
+									inputFilePath
+								);
+					}
+
+					final AssemblyTask task = new AssemblyTask(inputFilePath, isStreaming, buildCache, statistics); //Unchanged source files are served from the cache (if any)
+					pool.execute(task);
+					tasks.add(task);
+				}
+			}
 
 			final Linker linker = new Linker();
+			linker.setStatistics(statistics);
+			boolean isAssembled = true;
 
-			linker.linkObject(Assembler.assemble(sourceFile));
+			for(int i = 0; i < inputFilesPaths.size(); i++) //Objects are linked in the order of the input files
+			{
+				final String inputFilePath = inputFilesPaths.get(i);
+				final AssemblyTask task = tasks.get(i);
 
-			linker.emit(destFilePath);
+				if(task == null)
+				{
+					linker.linkObject(ObjectFileFormat.read(inputFilePath));
+					continue;
+				}
+
+				final ObjectFile objectFile = task.join();
+
+				if(objectFile == null)
+				{
+					isAssembled = false; //Keep waiting for the other files, so all of the errors are displayed
+				}
+				else if(isAssemblyOnly)
+				{
+					ObjectFileFormat.write(
+							objectFile,
+							(destFilePath != null) ? destFilePath : getObjectFilePath(inputFilePath)
+							);
+				}
+				else
+				{
+					linker.linkObject(objectFile);
+				}
+			}
+
+			if(isAssembled == false)
+			{
+				throw new HandledException();
+			}
+
+			if(isAssemblyOnly == false)
+			{
+				emitImage(linker, destFilePath);
+			}
 
-			//TODO: Print statistics
+			if(statistics != null)
+			{
+				printStatistics(
+						statistics,
+						isPrintingStatistics,
+						statisticsFilePath,
+						isImageOnStandardStream ? errorStream : System.out //Not mixed with the image
+						);
+			}
+
+			return true;
 		}
-		catch(final HandledException ex)
+		catch(final HandledException | InternalErrorException ex)
 		{
 			//An error accrued and a proper message has been displayed
 		}
@@ -122,5 +359,85 @@ public final class Main
 		{
 			Utils.displayError(throwable);
 		}
+
+		return false;
+	}
+
+	private static void emitImage(
+			final Linker linker,
+			final String destFilePath
+			) throws HandledException
+	{
+		if(destFilePath == null)
+		{
+			linker.emit(DEFAULT_IMAGE_PATH);
+		}
+		else if(destFilePath.equals(STANDARD_STREAM_PATH))
+		{
+			linker.emit(System.out);
+		}
+		else
+		{
+			linker.emit(destFilePath);
+		}
+	}
+
+	/**
+	 * @param isPrinting Whether to print the statistics as tables
+	 * @param filePath The file to write the statistics to as JSON (`-` for the standard stream), or `null`
+	 * @param standardStream The stream that stands for the standard stream
+	 */
+	private static void printStatistics(
+			final BuildStatistics statistics,
+			final boolean isPrinting,
+			final String filePath,
+			final PrintStream standardStream
+			) throws IOException
+	{
+		if(isPrinting)
+		{
+			statistics.print(standardStream);
+		}
+
+		if(filePath == null)
+		{
+			return;
+		}
+
+		if(filePath.equals(STANDARD_STREAM_PATH))
+		{
+			statistics.printJson(standardStream);
+			return;
+		}
+
+		try(final PrintStream out = new PrintStream(filePath, "UTF-8"))
+		{
+			statistics.printJson(out);
+		}
+	}
+
+	private static boolean isObjectFile(
+			final String filePath
+			)
+	{
+		return filePath.endsWith(ObjectFileFormat.FILE_EXTENSION);
+	}
+
+	/**
+	 * @return The path of a source file's object file, which is the source file's path with the object-file
+	 *  extension (instead of the source file's extension)
+	 */
+	private static String getObjectFilePath(
+			final String sourceFilePath
+			)
+	{
+		final int extensionIndex = sourceFilePath.lastIndexOf('.');
+
+		if(extensionIndex <= sourceFilePath.lastIndexOf(File.separatorChar))
+		{
+			return sourceFilePath + ObjectFileFormat.FILE_EXTENSION; //No extension
+		}
+
+		return sourceFilePath.substring(0, extensionIndex) + ObjectFileFormat.FILE_EXTENSION;
 	}
 }
@@ -20,8 +20,11 @@
 
 package open_source.amuyal_tal.yagbc2a;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import open_source.amuyal_tal.yagbc2a.language.operand.ConstantNumberOperand;
 import open_source.amuyal_tal.yagbc2a.language.operand.FlagConditionOperand;
@@ -31,6 +34,8 @@ import open_source.amuyal_tal.yagbc2a.language.operand.PointerOperand;
 import open_source.amuyal_tal.yagbc2a.language.operand.PointerOperandWithOffset;
 import open_source.amuyal_tal.yagbc2a.language.operand.RegisterOperand;
 import open_source.amuyal_tal.yagbc2a.language.operand.RegisterOperand.RegisterBitCount;
+import open_source.amuyal_tal.yagbc2a.parsing.OperandToken;
+import open_source.amuyal_tal.yagbc2a.utils.Utils;
 
 public final class OperandDataBase
 {
@@ -39,11 +44,22 @@ public final class OperandDataBase
 		//Static class
 	}
 
-	private static final List<Operand> _database;
+	private static final Operand[] NO_OPERANDS = new Operand[0];
+
+	private static final List<Operand> _database; //An operand's ID is its index
+	private static final Map<String, Operand> _operandsByName;
+	private static final Map<String, Operand> _namedOperands; //Registers and flag conditions, by their upper-cased names
+	private static final Operand[][] _operandsByKind; //Indexed by the ordinal of the kind of arguments they may match
+
+	/**
+	 * Operands that instructions are special-cased by
+	 */
+	public static final Operand HL;
+	public static final Operand SP_WITH_OFFSET;
 
 	static
 	{
-		_database = new LinkedList<Operand>();
+		_database = new ArrayList<Operand>();
 
 		{
 			final Operand d8 = new ImmediateNumberOperand("d8", false, true, true);
@@ -166,18 +182,106 @@ public final class OperandDataBase
 			_database.add(Z);
 			_database.add(NC);
 		}
+
+		Utils.assertCondition(_database.size() <= Operand.MAX_IDS_COUNT);
+
+		final List<List<Operand>> operandsByKind = new ArrayList<List<Operand>>();
+		for(int i = 0; i < OperandToken.Kind.values().length; i++)
+		{
+			operandsByKind.add(new ArrayList<Operand>());
+		}
+
+		_operandsByName = new HashMap<String, Operand>();
+		_namedOperands = new HashMap<String, Operand>();
+		for(int id = 0; id < _database.size(); id++)
+		{
+			final Operand operand = _database.get(id);
+
+			operand.assignId(id);
+			operandsByKind.get(getMatchedKind(operand).ordinal()).add(operand);
+
+			_operandsByName.putIfAbsent(operand.getName(), operand); //The first one wins, as in database order
+
+			if(operand instanceof RegisterOperand || operand instanceof FlagConditionOperand)
+			{
+				_namedOperands.putIfAbsent(operand.getName().toUpperCase(Locale.ROOT), operand); //The same instances as `searchByName`
+			}
+		}
+
+		_operandsByKind = new Operand[operandsByKind.size()][];
+		for(int i = 0; i < _operandsByKind.length; i++)
+		{
+			_operandsByKind[i] = operandsByKind.get(i).toArray(NO_OPERANDS);
+		}
+
+		HL = searchByName("HL");
+		SP_WITH_OFFSET = searchByName("SP+r8");
+	}
+
+	/**
+	 * @return The kind of the arguments that the operand may match
+	 */
+	private static OperandToken.Kind getMatchedKind(final Operand operand)
+	{
+		if(operand instanceof RegisterOperand)
+		{
+			return OperandToken.Kind.REGISTER;
+		}
+		else if(operand instanceof FlagConditionOperand)
+		{
+			return OperandToken.Kind.FLAG;
+		}
+		else if(operand instanceof ImmediateNumberOperand || operand instanceof ConstantNumberOperand)
+		{
+			return OperandToken.Kind.NUMBER;
+		}
+		else if(operand instanceof PointerOperand)
+		{
+			return OperandToken.Kind.POINTER;
+		}
+		else if(operand instanceof PointerOperandWithOffset)
+		{
+			return OperandToken.Kind.OFFSET;
+		}
+
+		Utils.abort("unrecognized operand \'" + operand.getName() + "\'");
+
+		return null;
 	}
 
 	public static final Operand searchByName(final String parameterName)
 	{
-		for(final Operand parameter : _database)
+		return _operandsByName.get(parameterName);
+	}
+
+	/**
+	 * @return The set (as a bitmask of IDs) of the operands that match a classified argument
+	 */
+	public static final long getMatchingOperands(final OperandToken token)
+	{
+		if(token.getKind() == OperandToken.Kind.REGISTER || token.getKind() == OperandToken.Kind.FLAG)
 		{
-			if(parameter.getName().equals(parameterName))
+			return token.getNamedOperand().getMask(); //A named operand matches only itself
+		}
+
+		long mask = 0;
+
+		for(final Operand operand : _operandsByKind[token.getKind().ordinal()])
+		{
+			if(operand.matches(token))
 			{
-				return parameter;
+				mask |= operand.getMask();
 			}
 		}
 
-		return null;
+		return mask;
+	}
+
+	/**
+	 * @return The register or the flag condition of the given name (case insensitive), or `null` if there is none
+	 */
+	public static final Operand searchNamedOperand(final String name)
+	{
+		return _namedOperands.get(name.toUpperCase(Locale.ROOT));
 	}
 }
@@ -20,8 +20,22 @@
 
 package open_source.amuyal_tal.yagbc2a.core;
 
+import open_source.amuyal_tal.yagbc2a.core.object.SymbolTable;
+
 public interface AddressAssignable
 {
+	public String getName();
+
+	/**
+	 * @return The id of the name, in the owning symbol table's names
+	 */
+	public int getSymbolId();
+
+	/**
+	 * @return The symbol table the symbol is inserted into, once its address is assigned
+	 */
+	public SymbolTable getOwningSymbolTable();
+
 	public int getDecelerationLineNumber();
 
 	public void assignAddress(int address);
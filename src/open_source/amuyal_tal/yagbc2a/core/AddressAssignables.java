@@ -24,14 +24,22 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.function.Consumer;
 
 public class AddressAssignables
 {
 	private final LinkedList<AddressAssignable> _addressless;
+	private final Consumer<AddressAssignable> _assignmentListener;
 
-	public AddressAssignables()
+	/**
+	 * @param assignmentListener Notified of each element, right after its address is assigned
+	 */
+	public AddressAssignables(
+			final Consumer<AddressAssignable> assignmentListener
+			)
 	{
 		_addressless = new LinkedList<AddressAssignable>();
+		_assignmentListener = assignmentListener;
 	}
 
 	public void addAll(
@@ -77,6 +85,7 @@ public class AddressAssignables
 				addressless.assignAddress(
 						address
 						);
+				_assignmentListener.accept(addressless);
 
 				iterator.remove();
 			}
@@ -100,6 +109,7 @@ public class AddressAssignables
 			addressless.assignAddress(
 					address
 					);
+			_assignmentListener.accept(addressless);
 		}
 
 		_addressless.clear();
@@ -30,20 +30,25 @@ import open_source.amuyal_tal.yagbc2a.InstructionDataBase;
 import open_source.amuyal_tal.yagbc2a.OperandDataBase;
 import open_source.amuyal_tal.yagbc2a.core.object.NumberVariableSymbol;
 import open_source.amuyal_tal.yagbc2a.core.object.ObjectFile;
+import open_source.amuyal_tal.yagbc2a.core.object.Relocation;
 import open_source.amuyal_tal.yagbc2a.core.object.StringVariableSymbol;
 import open_source.amuyal_tal.yagbc2a.core.object.Symbol;
 import open_source.amuyal_tal.yagbc2a.core.object.SymbolTable;
 import open_source.amuyal_tal.yagbc2a.core.object.UnresolvedSymbol;
 import open_source.amuyal_tal.yagbc2a.core.object.VariableSymbol;
-import open_source.amuyal_tal.yagbc2a.core.object.cartridge.BootHeader;
 import open_source.amuyal_tal.yagbc2a.language.instruction.InstructionTemplate;
 import open_source.amuyal_tal.yagbc2a.language.operand.ImmediateNumberOperand;
 import open_source.amuyal_tal.yagbc2a.language.operand.Operand;
 import open_source.amuyal_tal.yagbc2a.parsing.CommandTokens;
+import open_source.amuyal_tal.yagbc2a.parsing.OperandToken;
 import open_source.amuyal_tal.yagbc2a.parsing.SourceFile;
 import open_source.amuyal_tal.yagbc2a.parsing.SourceLine;
+import open_source.amuyal_tal.yagbc2a.parsing.Syntax;
 import open_source.amuyal_tal.yagbc2a.parsing.SyntaxException;
+import open_source.amuyal_tal.yagbc2a.parsing.TokenStream;
+import open_source.amuyal_tal.yagbc2a.parsing.TokenType;
 import open_source.amuyal_tal.yagbc2a.utils.Utils;
+import open_source.amuyal_tal.yagbc2a.utils.adt.IntMap;
 
 public final class Assembler
 {
@@ -51,7 +56,18 @@ public final class Assembler
 			final SourceFile sourceFile
 			) throws HandledException
 	{
-		final Assembler assembler = new Assembler(sourceFile);
+		return assemble(sourceFile, null);
+	}
+
+	/**
+	 * @param statistics Records the figures of each pass (may be `null`)
+	 */
+	public static ObjectFile assemble(
+			final SourceFile sourceFile,
+			final BuildStatistics statistics
+			) throws HandledException
+	{
+		final Assembler assembler = new Assembler(sourceFile, statistics);
 
 		/*
 		 * The following are calls for different passes. Each pass may modify the code.
@@ -65,7 +81,7 @@ public final class Assembler
 		 * Dependencies:
 		 *  None
 		 */
-		assembler.removeEmptyLines();
+		assembler.runPass("removeEmptyLines", assembler::removeEmptyLines);
 
 		/*
 		 * Second pass
@@ -73,7 +89,7 @@ public final class Assembler
 		 * Dependencies:
 		 *  None
 		 */
-		assembler.detectFunctions();
+		assembler.runPass("detectFunctions", assembler::detectFunctions);
 
 		/*
 		 * Third pass
@@ -82,7 +98,7 @@ public final class Assembler
 		 *  - `detectFunctions` - labels may be function local. such labels are registered in
 		 *     the function's symbol table.
 		 */
-		assembler.detectLabels();
+		assembler.runPass("detectLabels", assembler::detectLabels);
 
 		/*
 		 * Fourth pass
@@ -91,7 +107,7 @@ public final class Assembler
 		 *  - `detectFunctions` - variables may be function local. such variables are registered in
 		 *     the function's symbol table
 		 */
-		assembler.resolveVariableDefinitions();
+		assembler.runPass("resolveVariableDefinitions", assembler::resolveVariableDefinitions);
 
 		/*
 		 * Fifth pass
@@ -99,7 +115,7 @@ public final class Assembler
 		 * Dependencies:
 		 * - `resolveVariableDefinitions` - resolves symbols marked by this pass
 		 */
-		assembler.translateVariableSymbols();
+		assembler.runPass("translateVariableSymbols", assembler::translateVariableSymbols);
 
 		/*
 		 * Sixth pass
@@ -113,15 +129,44 @@ public final class Assembler
 		 * - `resolveVariableDefinitions` - no variables skipping implemented
 		 * - `translateVariableSymbols` - actual values required
 		 */
-		assembler.translateInstructions();
+		assembler.runPass("translateInstructions", assembler::translateInstructions);
+
+		assembler.printErrors();
+
+		return assembler.getObjectFile();
+	}
+
+	/**
+	 * Assembles in a streaming mode, that is composed of a single forward pass that classifies each line once
+	 * and translates it.
+	 *
+	 * Unlike {@link #assemble(SourceFile)}, variables must be defined before they are used.
+	 */
+	public static ObjectFile assembleStreaming(
+			final SourceFile sourceFile
+			) throws HandledException
+	{
+		return assembleStreaming(sourceFile, null);
+	}
+
+	/**
+	 * @param statistics Records the figures of each pass (may be `null`)
+	 */
+	public static ObjectFile assembleStreaming(
+			final SourceFile sourceFile,
+			final BuildStatistics statistics
+			) throws HandledException
+	{
+		final Assembler assembler = new Assembler(sourceFile, statistics);
+		assembler._isStreaming = true;
 
 		/*
-		 * Seventh pass
+		 * First pass
 		 *
 		 * Dependencies:
-		 * - `translateInstructions` - resolves symbols marked by this pass
+		 *  None
 		 */
-		assembler.translateUnresolvedSymbols();
+		assembler.runPass("translateLines", assembler::translateLines);
 
 		assembler.printErrors();
 
@@ -132,23 +177,66 @@ public final class Assembler
 	private final SourceFile _sourceFile;
 
 	private final List<String> _errors;
-	private final List<UnresolvedSymbol> _unresolvedSymbols;
+	private final FixupTable _fixups; //Usages of symbols that aren't defined yet
 
 	private final List<Function> _functions;
+	private final FunctionScopes _functionScopes; //Index of `_functions` by line numbers
 	private final List<Label> _labels;
+	private final Stack<Function> _openFunctions; //Functions whose termination wasn't reached yet
+
+	private final BuildStatistics _statistics; //`null` if no figures are recorded
+
+	private boolean _isStreaming;
 
 	private Assembler(
-			final SourceFile sourceFile
+			final SourceFile sourceFile,
+			final BuildStatistics statistics
 			)
 	{
-		_objectFile = new ObjectFile();
+		_objectFile = new ObjectFile(sourceFile.getFilePath());
 		_sourceFile = sourceFile;
 
 		_errors = new LinkedList<String>();
-		_unresolvedSymbols = new LinkedList<UnresolvedSymbol>();
+		_fixups = new FixupTable();
 
 		_functions = new LinkedList<Function>(); //`LinkedList` is the chosen implementation, as only `add(E)` and iterator operations are done
+		_functionScopes = new FunctionScopes();
 		_labels = new LinkedList<Label>(); //`LinkedList` is the chosen implementation, as only `add(E)` and iterator operations are done
+		_openFunctions = new Stack<Function>();
+
+		_statistics = statistics;
+
+		_isStreaming = false;
+	}
+
+	/**
+	 * Runs a pass, recording its figures (if needed): the lines it is given and the bytes it emits
+	 */
+	private void runPass(
+			final String passName,
+			final Runnable pass
+			)
+	{
+		if(_statistics == null)
+		{
+			pass.run();
+			return;
+		}
+
+		final int linesCount = _sourceFile.getLinesCount();
+		final int addedLinesCount = _sourceFile.getAddedLinesCount(); //Lines of a stream are read during the pass
+		final int segmentsSize = _objectFile.getDataSegmentSize() + _objectFile.getCodeSegmentSize();
+		final BuildStatistics.Measurement measurement = BuildStatistics.begin();
+
+		pass.run();
+
+		_statistics.record(
+				_objectFile.getName(),
+				passName,
+				linesCount + _sourceFile.getAddedLinesCount() - addedLinesCount,
+				_objectFile.getDataSegmentSize() + _objectFile.getCodeSegmentSize() - segmentsSize,
+				measurement
+				);
 	}
 
 	private void removeEmptyLines()
@@ -166,35 +254,38 @@ public final class Assembler
 
 	private void detectFunctions()
 	{
-		final Stack<Function> detectedFunctions = new Stack<Function>();
-
 		final Iterator<SourceLine> iterator = _sourceFile.iterator();
 
 		while(iterator.hasNext())
 		{
 			final SourceLine sourceLine = iterator.next();
+			final TokenStream tokens = sourceLine.getTokens();
+			final int firstTokenIndex = sourceLine.getFirstTokenIndex();
 
-			if(sourceLine.getText().startsWith("func"))
+			if(tokens.isDirective(firstTokenIndex, Syntax.FUNCTION_BEGIN))
 			{
 				parseFunctionBegin(
-						sourceLine,
-						detectedFunctions
+						sourceLine
 						);
 				iterator.remove();
 			}
-			else if(sourceLine.getText().equalsIgnoreCase("end"))
+			else if(tokens.isDirective(firstTokenIndex, Syntax.FUNCTION_END) && tokens.getTokensCount() == firstTokenIndex + 1)
 			{
 				parseFunctionEnd(
-						sourceLine,
-						detectedFunctions
+						sourceLine
 						);
 				iterator.remove();
 			}
 		}
 
-		while(detectedFunctions.isEmpty() == false)
+		reportUnterminatedFunctions();
+	}
+
+	private void reportUnterminatedFunctions()
+	{
+		while(_openFunctions.isEmpty() == false)
 		{
-			final Function functionData = detectedFunctions.pop();
+			final Function functionData = _openFunctions.pop();
 
 			final String error = String.format(
 					"Function `%s` isn't termintated, missing \"end\" marker",
@@ -216,11 +307,20 @@ public final class Assembler
 		{
 			final SourceLine sourceLine = iterator.next();
 
-			while(sourceLine.getText().contains(":"))
+			if(sourceLine.getFirstTokenType() == TokenType.LABEL)
 			{
-				parseLabel(
-						sourceLine
-						);
+				do
+				{
+					final Label label = parseLabel(
+							sourceLine
+							);
+
+					if(label != null)
+					{
+						_labels.add(label);
+					}
+				}
+				while(sourceLine.getFirstTokenType() == TokenType.LABEL);
 
 				if(sourceLine.isEmpty())
 				{
@@ -238,7 +338,7 @@ public final class Assembler
 		{
 			final SourceLine sourceLine = iterator.next();
 
-			if(sourceLine.getText().startsWith("define "))
+			if(sourceLine.getTokens().isDirective(sourceLine.getFirstTokenIndex(), Syntax.VARIABLE_DEFINITION))
 			{
 				parseVariableDefinition(
 						sourceLine
@@ -250,73 +350,92 @@ public final class Assembler
 
 	private void translateVariableSymbols()
 	{
-		final SymbolTable symbolTable = _objectFile.getSymbolTable();
-
 		final Iterator<SourceLine> iterator = _sourceFile.iterator();
 
 		while(iterator.hasNext())
 		{
-			final SourceLine sourceLine = iterator.next();
-
-			CommandTokens tokens;
-			try
-			{
-				tokens = new CommandTokens(sourceLine.getText());
-			}
-			catch (final SyntaxException e)
-			{
-				continue; //Skip lines that can't be parsed
-			}
+			translateVariableSymbols(
+					iterator.next()
+					);
+		}
+	}
 
-			for(int i = 0; i < tokens.getArgumentsCount(); i++)
-			{
-				final boolean isValueUsage = tokens.getArgument(i).startsWith("*");
-				final boolean isAddressUsage = tokens.getArgument(i).startsWith("&");
-				final boolean isVariableUsed = isValueUsage || isAddressUsage;
+	private void translateVariableSymbols(
+			final SourceLine sourceLine
+			)
+	{
+		final SymbolTable symbolTable = _objectFile.getSymbolTable();
 
-				if(isVariableUsed)
-				{
-					final String variableName = tokens.getArgument(i).substring(1);
+		CommandTokens tokens;
+		try
+		{
+			tokens = sourceLine.getCommandTokens();
+		}
+		catch (final SyntaxException e)
+		{
+			return; //Skip lines that can't be parsed
+		}
 
-					if(symbolTable.isSymbolDefined(variableName) == false)
-					{
-						handleError(
-								String.format(
-										"Unrecognized variable `%s`",
-										variableName
-										),
-								sourceLine
-								);
-						continue;
-					}
+		for(int i = 0; i < tokens.getArgumentsCount(); i++)
+		{
+			final boolean isValueUsage = tokens.getArgument(i).startsWith("*");
+			final boolean isAddressUsage = tokens.getArgument(i).startsWith("&");
+			final boolean isVariableUsed = isValueUsage || isAddressUsage;
 
-					final Symbol symbol = symbolTable.getSymbol(variableName);
-					if((symbol instanceof VariableSymbol) == false)
-					{
-						handleError(
-								String.format(
-										"Symbol `%s` is not a variable",
-										variableName
-										),
-								sourceLine
-								);
-						continue;
-					}
+			if(isVariableUsed)
+			{
+				final String variableName = tokens.getArgument(i).substring(1);
 
-					final VariableSymbol variableSymbol = (VariableSymbol)symbol;
+				final Symbol symbol = symbolTable.findSymbol(variableName);
+				if(symbol == null && isAddressUsage)
+				{
+					//Defined by another object (or, when streaming, later in this one), thus resolved by the linker
+					tokens.substituteArgument(
+							i,
+							"(0)",
+							variableName
+							);
+					continue;
+				}
+				else if(symbol == null)
+				{
+					handleError(
+							String.format(
+									_isStreaming ?
+											"Unrecognized variable `%s` (a value usage requires a variable defined in the same file, before it is used in streaming mode)" :
+											"Unrecognized variable `%s` (a value usage requires a variable defined in the same file)",
+									variableName
+									),
+							sourceLine
+							);
+					continue;
+				}
 
-					if(isValueUsage)
-					{
-						tokens.replaceArgument(i, variableSymbol.toString());
-					}
-					else //if(isAddressUsage)
-					{
-						final int variableRelativeAddress = variableSymbol.getAddress();
+				if((symbol instanceof VariableSymbol) == false)
+				{
+					handleError(
+							String.format(
+									"Symbol `%s` is not a variable",
+									variableName
+									),
+							sourceLine
+							);
+					continue;
+				}
 
-						tokens.replaceArgument(i, "(" + Integer.toString(BootHeader.getSize() + variableRelativeAddress) + ")");
-					}
+				final VariableSymbol variableSymbol = (VariableSymbol)symbol;
 
-					sourceLine.resetText(tokens.toString());
+				if(isValueUsage)
+				{
+					tokens.replaceArgument(i, variableSymbol.toString());
+				}
+				else //if(isAddressUsage)
+				{
+					tokens.substituteArgument(
+							i,
+							"(0)", //A placeholder, as the address is known only once the segments are placed
+							variableName
+							);
 				}
 			}
 		}
@@ -324,11 +443,14 @@ public final class Assembler
 
 	private void translateInstructions()
 	{
-		final AddressAssignables addresslessSymbols = new AddressAssignables();
+		final AddressAssignables addresslessSymbols = new AddressAssignables(this::resolveFixups);
 		addresslessSymbols.addAll(_functions);
 		addresslessSymbols.addAll(_labels);
 		addresslessSymbols.sort();
 
+		final Iterator<Function> functionsIterator = _functions.iterator(); //Functions are terminated in the order of their lines
+		Function nextTerminatedFunction = functionsIterator.hasNext() ? functionsIterator.next() : null;
+
 		final Iterator<SourceLine> iterator = _sourceFile.iterator();
 
 		while(iterator.hasNext())
@@ -340,6 +462,14 @@ public final class Assembler
 					_objectFile.getCodeSegmentSize()
 					);
 
+			//All of the labels of the functions that precede the line are assigned
+			while(nextTerminatedFunction != null &&
+					nextTerminatedFunction.getTermintaionSourceLine().getLineNumber() < sourceLine.getLineNumber())
+			{
+				resolveFunctionFixups(nextTerminatedFunction);
+				nextTerminatedFunction = functionsIterator.hasNext() ? functionsIterator.next() : null;
+			}
+
 			parseInstruction(sourceLine);
 
 			iterator.remove();
@@ -348,172 +478,361 @@ public final class Assembler
 		addresslessSymbols.assignRemaining(
 				_objectFile.getCodeSegmentSize()
 				);
+
+		while(nextTerminatedFunction != null)
+		{
+			resolveFunctionFixups(nextTerminatedFunction);
+			nextTerminatedFunction = functionsIterator.hasNext() ? functionsIterator.next() : null;
+		}
+
+		resolveExternalFixups();
 	}
 
-	private void translateUnresolvedSymbols()
+	private void translateLines()
 	{
-		final Iterator<UnresolvedSymbol> iterator = _unresolvedSymbols.iterator();
-
-		final SymbolTable globalSymbolTable = _objectFile.getSymbolTable();
+		final Iterator<SourceLine> iterator = _sourceFile.iterator();
 
 		while(iterator.hasNext())
 		{
-			final UnresolvedSymbol unresolvedSymbol = iterator.next();
+			final SourceLine sourceLine = iterator.next();
+			iterator.remove(); //Translated lines are not needed anymore
 
-			//The owning function is the owner of the symbol usage
-			final Function owningFunction = getOwningFunction(
-					unresolvedSymbol.getSourceLine().getLineNumber()
-					);
+			translateLine(sourceLine);
+		}
 
-			//Data to be searched for
-			SymbolTable symbolTable = null;
-			boolean isFunctionLocal = false;
+		for(final Function function : _openFunctions)
+		{
+			resolveFunctionFixups(function); //Resolved as if terminated, to report the errors of their usages
+		}
 
-			if(owningFunction != null)
-			{
-				final SymbolTable functionSymbolTable = owningFunction.getLocalSymbolTable();
+		reportUnterminatedFunctions();
 
-				if(functionSymbolTable.isSymbolDefined(
-						unresolvedSymbol.getSymbolName()
-						))
-				{
-					symbolTable = functionSymbolTable;
-					isFunctionLocal = true;
-				}
-			}
+		resolveExternalFixups();
+	}
 
-			if(symbolTable == null)
+	/**
+	 * Classifies and translates a single line, as part of the streaming mode
+	 */
+	private void translateLine(
+			final SourceLine sourceLine
+			)
+	{
+		while(sourceLine.getFirstTokenType() == TokenType.LABEL)
+		{
+			final Label label = parseLabel(
+					sourceLine
+					);
+
+			if(label != null)
 			{
-				if(globalSymbolTable.isSymbolDefined(unresolvedSymbol.getSymbolName()))
-				{
-					symbolTable = globalSymbolTable;
-				}
+				label.assignAddress(
+						_objectFile.getCodeSegmentSize()
+						);
+				resolveFixups(label);
 			}
+		}
+
+		if(sourceLine.isEmpty())
+		{
+			return;
+		}
+
+		final TokenStream tokens = sourceLine.getTokens();
+		final int firstTokenIndex = sourceLine.getFirstTokenIndex();
 
-			if(symbolTable == null)
+		if(tokens.isDirective(firstTokenIndex, Syntax.FUNCTION_BEGIN))
+		{
+			final Function function = parseFunctionBegin(
+					sourceLine
+					);
+
+			if(function != null)
 			{
-				handleError(
-						String.format(
-								"Unrecognized symbol `%s`",
-								unresolvedSymbol.getSymbolName()
-								),
-						unresolvedSymbol.getSourceLine()
+				function.assignAddress(
+						_objectFile.getCodeSegmentSize()
 						);
+				resolveFixups(function);
 			}
-			else
+		}
+		else if(tokens.isDirective(firstTokenIndex, Syntax.FUNCTION_END) && tokens.getTokensCount() == firstTokenIndex + 1)
+		{
+			final Function function = parseFunctionEnd(
+					sourceLine
+					);
+
+			if(function != null)
 			{
-				final Symbol symbol = symbolTable.getSymbol(
-						unresolvedSymbol.getSymbolName()
-						);
+				resolveFunctionFixups(function);
+			}
+		}
+		else if(tokens.isDirective(firstTokenIndex, Syntax.VARIABLE_DEFINITION))
+		{
+			parseVariableDefinition(
+					sourceLine
+					);
+		}
+		else
+		{
+			translateVariableSymbols(
+					sourceLine
+					);
 
-				if(isFunctionLocal && symbol instanceof VariableSymbol)
-				{
-					handleError(
-							"Function-local variables are not supported",
-							unresolvedSymbol.getSourceLine()
-							);
-				}
-				else
-				{
-					final int segmentRelativeAddress = symbol.getAddress();
+			parseInstruction(
+					sourceLine
+					);
+		}
+	}
 
-					final int bootHeaderToSegmentOffset =
-							(symbol instanceof VariableSymbol) ? 0 : _objectFile.getDataSegmentSize(); //Data segment precedes code segment
+	/**
+	 * Registers the usage of a symbol. The usage is turned into a relocation, for the linker to patch once the
+	 * segments are placed, either immediately (if the symbol is known) or once its symbol is defined.
+	 */
+	private void addSymbolUsage(
+			final UnresolvedSymbol usage
+			)
+	{
+		final Relocation.Type type = getRelocationType(usage);
+		if(type == null)
+		{
+			return; //An error has been recorded
+		}
 
-					final int absoluteAddress = BootHeader.getSize() + bootHeaderToSegmentOffset + segmentRelativeAddress;
+		if(usage.hasExplicitAddress())
+		{
+			addRelocation(
+					usage.getStartIndex(),
+					type,
+					Relocation.Target.ABSOLUTE,
+					usage.getExplicitAddress(),
+					usage.getSourceLine()
+					);
+			return;
+		}
 
-					Utils.assertCondition(0 <= absoluteAddress && absoluteAddress <= 0xFFFF);
+		//The owning function is the owner of the symbol usage
+		final Function owningFunction = getOwningFunction(
+				usage.getSourceLine().getLineNumber()
+				);
 
-					byte[] addressArray = null;
+		final SymbolTable symbolTable = (owningFunction == null) ?
+				_objectFile.getSymbolTable() :
+					owningFunction.getLocalSymbolTable();
 
-					//The non-`else` cases are non-standard usage of addresses by specific instructions
-					final InstructionTemplate instruction = unresolvedSymbol.getInstruction();
-					if(instruction.getCommand().equals("JR"))
-					{
-						Utils.assertCondition(unresolvedSymbol.getSize() == 1);
+		final int symbolId = symbolTable.getNames().intern(usage.getSymbolName());
 
-						final int lastOperandIndex = instruction.getParametersCount() - 1;
-						Utils.assertCondition(unresolvedSymbol.getOperandIndex() == lastOperandIndex);
+		/*
+		 * A function-local symbol hides a global one, thus, within a function, a global symbol is
+		 *  used only once the function is terminated (see `resolveFunctionFixups`).
+		 */
+		final Symbol symbol = symbolTable.findSymbol(symbolId);
+		if(symbol != null)
+		{
+			resolveSymbolUsage(
+					usage,
+					symbol,
+					owningFunction != null
+					);
+		}
+		else
+		{
+			_fixups.add(symbolTable, symbolId, usage);
+		}
+	}
 
-						//The address of the instruction's beginning
-						final int usageAddress = unresolvedSymbol.getStartIndex() - 1; //'1' is the size of JR (without the address)
+	/**
+	 * Patches the usages of a symbol that preceded its definition
+	 */
+	private void resolveFixups(
+			final AddressAssignable definition
+			)
+	{
+		final List<UnresolvedSymbol> usages = _fixups.remove(
+				definition.getOwningSymbolTable(),
+				definition.getSymbolId()
+				);
 
-						//Wished amount of bytes to skip
-						final int addressesOffset = absoluteAddress - usageAddress;
+		if(usages == null)
+		{
+			return; //Not used before its definition
+		}
 
-						//Actual amounts of bytes to skip
-						final int jumpBytes = addressesOffset - 2;
+		final Symbol symbol = definition.getOwningSymbolTable().findSymbol(definition.getSymbolId());
+		final boolean isLocal = definition.getOwningSymbolTable() != _objectFile.getSymbolTable();
 
-						addressArray = new byte[1];
-						addressArray[0] = (byte)jumpBytes;
-						if(jumpBytes != (int)addressArray[0])
-						{
-							handleError(
-									"Distance between jump command and destination address is too far for a relative jump",
-									unresolvedSymbol.getSourceLine()
-									);
-
-							/*
-							 * No abortion is places here, as it will add to the complexity of this function.
-							 * This is not of any concern, as the compilation has already marked as failed.
-							 */
-						}
-					}
-					else if(instruction.getCommand().equals("LD") &&
-							instruction.getParametersCount() == 2 &&
-							instruction.getParameter(0) == OperandDataBase.searchByName("HL") &&
-							instruction.getParameter(1) == OperandDataBase.searchByName("SP+r8"))
-					{
-						//TODO: Implement together with function-local variables
+		for(final UnresolvedSymbol usage : usages)
+		{
+			resolveSymbolUsage(usage, symbol, isLocal);
+		}
+	}
 
-						handleError(
-								"Function-local variables are not supported",
-								unresolvedSymbol.getSourceLine()
-								);
-					}
-					else if(instruction.getName().equals("LDH"))
-					{
-						addressArray = new byte[1];
+	/**
+	 * Once a function is terminated, its usages of symbols that aren't function-local are looked up in the
+	 *  global scope
+	 */
+	private void resolveFunctionFixups(
+			final Function function
+			)
+	{
+		final SymbolTable localSymbolTable = function.getLocalSymbolTable();
 
-						if(absoluteAddress < 0xFF00)
-						{
-							handleError(
-									String.format(
-											"Address size of symbol `%s` is too big",
-											unresolvedSymbol.getSymbolName()
-											),
-											unresolvedSymbol.getSourceLine()
-									);
+		final IntMap<List<UnresolvedSymbol>> fixups = _fixups.removeScope(localSymbolTable);
+		if(fixups == null)
+		{
+			return;
+		}
 
-							/*
-							 * No abortion is places here, as it will add to the complexity of this function.
-							 * This is not of any concern, as the compilation has already marked as failed.
-							 */
-						}
-						else
-						{
-							addressArray[0] = (byte)(absoluteAddress - 0xFF00);
-						}
-					}
-					else //Normal/regular/default case
-					{
-						Utils.assertCondition(unresolvedSymbol.getSize() == 2);
+		for(int i = 0; i < fixups.getEntriesCount(); i++)
+		{
+			final List<UnresolvedSymbol> usages = fixups.getValueAt(i);
+			if(usages == null)
+			{
+				continue; //Defined in the function
+			}
 
-						final byte[] bigEndianAddress = Utils.toByteArray(absoluteAddress);
-						addressArray = Utils.getOtherEndianess(bigEndianAddress);
-					}
+			final int symbolId = fixups.getKeyAt(i);
+			final Symbol symbol = localSymbolTable.lookupSymbol(symbolId); //Not function-local, thus looked up in the chained (global) symbol table
 
-					_objectFile.setCodeSegmentSection(
-							unresolvedSymbol.getStartIndex(),
-							addressArray
-							);
+			for(final UnresolvedSymbol usage : usages)
+			{
+				if(symbol != null)
+				{
+					resolveSymbolUsage(usage, symbol, false);
+				}
+				else
+				{
+					_fixups.add(localSymbolTable.getParent(), symbolId, usage);
 				}
 			}
+		}
+	}
 
-			iterator.remove();
+	/**
+	 * The symbols that are still not defined at the end of the assembly are not defined by this object, thus
+	 *  they are left for the linker to resolve by their names
+	 */
+	private void resolveExternalFixups()
+	{
+		final IntMap<List<UnresolvedSymbol>> fixups = _fixups.removeScope(_objectFile.getSymbolTable());
+		if(fixups == null)
+		{
+			return;
+		}
+
+		for(int i = 0; i < fixups.getEntriesCount(); i++)
+		{
+			final List<UnresolvedSymbol> usages = fixups.getValueAt(i);
+			if(usages == null)
+			{
+				continue; //Defined
+			}
+
+			for(final UnresolvedSymbol usage : usages)
+			{
+				final SourceLine sourceLine = usage.getSourceLine();
+
+				_objectFile.addRelocation(
+						new Relocation(
+								usage.getStartIndex(),
+								getRelocationType(usage),
+								usage.getSymbolName(),
+								sourceLine.getFileName(),
+								sourceLine.getLineNumber()
+								)
+						);
+			}
 		}
 	}
 
+	private void resolveSymbolUsage(
+			final UnresolvedSymbol usage,
+			final Symbol symbol,
+			final boolean isLocal
+			)
+	{
+		if(isLocal && symbol instanceof VariableSymbol)
+		{
+			handleError(
+					"Function-local variables are not supported",
+					usage.getSourceLine()
+					);
+			return;
+		}
+
+		addRelocation(
+				usage.getStartIndex(),
+				getRelocationType(usage),
+				(symbol instanceof VariableSymbol) ? Relocation.Target.DATA_SEGMENT : Relocation.Target.CODE_SEGMENT,
+				symbol.getAddress(),
+				usage.getSourceLine()
+				);
+	}
+
+	/**
+	 * @return The encoding of the symbol's usage, or `null` if the usage is not supported (an error is recorded)
+	 */
+	private Relocation.Type getRelocationType(
+			final UnresolvedSymbol unresolvedSymbol
+			)
+	{
+		//The non-`else` cases are non-standard usage of addresses by specific instructions
+		final InstructionTemplate instruction = unresolvedSymbol.getInstruction();
+		if(instruction.getCommand().equals("JR"))
+		{
+			Utils.assertCondition(unresolvedSymbol.getSize() == 1);
+
+			final int lastOperandIndex = instruction.getParametersCount() - 1;
+			Utils.assertCondition(unresolvedSymbol.getOperandIndex() == lastOperandIndex);
+
+			return Relocation.Type.RELATIVE_JUMP;
+		}
+		else if(instruction.getCommand().equals("LD") &&
+				instruction.getParametersCount() == 2 &&
+				instruction.getParameter(0) == OperandDataBase.HL &&
+				instruction.getParameter(1) == OperandDataBase.SP_WITH_OFFSET)
+		{
+			//TODO: Implement together with function-local variables
+
+			handleError(
+					"Function-local variables are not supported",
+					unresolvedSymbol.getSourceLine()
+					);
+
+			return null;
+		}
+		else if(instruction.getCommand().equals("LDH"))
+		{
+			Utils.assertCondition(unresolvedSymbol.getSize() == 1);
+
+			return Relocation.Type.HIGH_ADDRESS;
+		}
+		else //Normal/regular/default case
+		{
+			Utils.assertCondition(unresolvedSymbol.getSize() == 2);
+
+			return Relocation.Type.ABSOLUTE_ADDRESS;
+		}
+	}
+
+	private void addRelocation(
+			final int location,
+			final Relocation.Type type,
+			final Relocation.Target target,
+			final int targetAddress,
+			final SourceLine sourceLine
+			)
+	{
+		_objectFile.addRelocation(
+				new Relocation(
+						location,
+						type,
+						target,
+						targetAddress,
+						sourceLine.getFileName(),
+						sourceLine.getLineNumber()
+						)
+				);
+	}
+
 	private boolean handleError(
 			final String error,
 			final SourceLine sourceLine
@@ -542,58 +861,71 @@ public final class Assembler
 	{
 		if(_errors.isEmpty() == false)
 		{
-			System.out.println("Errors:");
-			for(final String error : _errors)
+			synchronized(System.out) //Other files may be assembled concurrently
 			{
-				System.out.println(error);
+				if(_objectFile.getName() == null)
+				{
+					System.out.println("Errors:");
+				}
+				else
+				{
+					System.out.println(String.format("Errors in `%s`:", _objectFile.getName()));
+				}
+
+				for(final String error : _errors)
+				{
+					System.out.println(error);
+				}
 			}
 
 			throw new HandledException();
 		}
 	}
 
-	private void parseLabel(
+	private Label parseLabel(
 			final SourceLine sourceLine
 			)
 	{
+		Label label = null;
+
 		final SymbolTable symbolTable = getInnermostSymbolTable(
 				sourceLine.getLineNumber()
 				);
 
-		final String lineText = sourceLine.getText();
+		final TokenStream tokens = sourceLine.getTokens();
+		final int labelTokenIndex = sourceLine.getFirstTokenIndex();
 
-		if(lineText.startsWith(":"))
+		if(tokens.getLength(labelTokenIndex) == 0)
 		{
 			handleError("Label name missing", sourceLine);
 		}
 		else
 		{
-			final String[] parts = lineText.split(":");
-
-			_labels.add(
-					new Label(
-							parts[0],
-							sourceLine,
-							symbolTable
-							)
+			label = new Label(
+					symbolTable.getNames().intern( //Interned without allocating the label's text
+							tokens.getText(),
+							tokens.getStart(labelTokenIndex),
+							tokens.getEnd(labelTokenIndex)
+							),
+					sourceLine,
+					symbolTable
 					);
-
-			//Remove the parsed code
-			{
-				final int parsedCodeLength = parts[0].length() + 1; //Length of label name + 1 for ':'
-				sourceLine.resetText(lineText.substring(parsedCodeLength).trim()); //Trimming in case of space (e.g. "myLabel: myCode")
-			}
 		}
+
+		//The parsed code is no longer relevant
+		sourceLine.consumeToken();
+
+		return label;
 	}
 
-	private void parseFunctionBegin(
-			final SourceLine sourceLine,
-			final Stack<Function> detectedFunctions
+	private Function parseFunctionBegin(
+			final SourceLine sourceLine
 			)
 	{
 		String error = null;
+		Function function = null;
 
-		final String parts[] = sourceLine.getText().split(" ");
+		final String parts[] = getWords(sourceLine);
 		if(parts.length == 1)
 		{
 			error = "missing function name";
@@ -619,40 +951,45 @@ public final class Assembler
 					parts[1]
 					);
 		}
-		else if(detectedFunctions.size() > 0)
+		else if(_openFunctions.size() > 0)
 		{
 			error = "Nested functions not supported";
 		}
 		else
 		{
-			final Function function = new Function(
+			function = new Function(
 					parts[1],
 					sourceLine,
 					_objectFile.getSymbolTable()
 					);
 
-			detectedFunctions.push(
+			_openFunctions.push(
 					function
 					);
 		}
 
 		handleError(error, sourceLine);
+
+		return function;
 	}
 
-	private void parseFunctionEnd(
-			final SourceLine sourceLine,
-			final Stack<Function> detectedFunctions
+	/**
+	 * @return The terminated function, or `null` if an error has been recorded
+	 */
+	private Function parseFunctionEnd(
+			final SourceLine sourceLine
 			)
 	{
 		String error = null;
+		Function function = null;
 
-		if(detectedFunctions.isEmpty())
+		if(_openFunctions.isEmpty())
 		{
 			error = "Function end with no beginning";
 		}
 		else
 		{
-			final Function function = detectedFunctions.pop();
+			function = _openFunctions.pop();
 
 			function.setTermintaionSourceLine(
 					sourceLine
@@ -661,9 +998,14 @@ public final class Assembler
 			_functions.add(
 					function
 					);
+			_functionScopes.add(
+					function
+					);
 		}
 
 		handleError(error, sourceLine);
+
+		return function;
 	}
 
 	private void parseVariableDefinition(
@@ -674,7 +1016,7 @@ public final class Assembler
 				sourceLine.getLineNumber()
 				);
 
-		final String parts[] = sourceLine.getText().split(" ");
+		final String parts[] = getWords(sourceLine);
 		if(parts.length < 4)
 		{
 			handleError(
@@ -765,8 +1107,9 @@ public final class Assembler
 			final Function owningFunction
 			)
 	{
-		String value = sourceLine.getText().substring(
-				parts[0].length() + 1 + parts[1].length() + 1 + parts[2].length() + 1
+		//The value is the rest of the line, as it may contain white-spaces
+		String value = sourceLine.getTokens().getText(
+				sourceLine.getFirstTokenIndex() + 3
 				);
 
 		if(value.startsWith("\"") == false)
@@ -836,9 +1179,19 @@ public final class Assembler
 		final int nameIndex = 2;
 		final int valueIndex = 3;
 
-		try
+		final long literal = Utils.parseLiteral(parts[valueIndex], 0, parts[valueIndex].length());
+
+		if(Utils.isValidLiteral(literal) == false)
+		{
+
+			handleError(
+					"Variable value is not a valid number",
+					sourceLine
+					);
+		}
+		else
 		{
-			final int value = Utils.parseValue(parts[valueIndex]);
+			final int value = Utils.getLiteralValue(literal);
 
 			if(value < 0)
 			{
@@ -889,14 +1242,6 @@ public final class Assembler
 						);
 			}
 		}
-		catch(final NumberFormatException ex)
-		{
-
-			handleError(
-					"Variable value is not a valid number",
-					sourceLine
-					);
-		}
 	}
 
 	private void parseInstruction(
@@ -909,7 +1254,7 @@ public final class Assembler
 
 		try
 		{
-			tokens = new CommandTokens(sourceLine.getText());
+			tokens = sourceLine.getCommandTokens();
 		}
 		catch(final SyntaxException e)
 		{
@@ -930,35 +1275,40 @@ public final class Assembler
 				{
 					final int lastOperandIndex = tokens.getArgumentsCount() - 1;
 
-					//The address of the instruction's beginning
-					final int usageAddress =
-							BootHeader.getSize() +
-							_objectFile.getDataSegmentSize() +
-							_objectFile.getCodeSegmentSize(); //This calculation result in the amount of bytes in the file which is the next location to be filled
+					final String addressOperandValue = tokens.getArgument(lastOperandIndex);
+					final long addressLiteral = Utils.parseLiteral(addressOperandValue, 0, addressOperandValue.length());
 
-					try
+					if(Utils.isValidLiteral(addressLiteral) == false)
 					{
-						final int absoluteAddress = Utils.parseValue(tokens.getArgument(lastOperandIndex));
-
-						//Wished amount of bytes to skip
-						final int addressesOffset = absoluteAddress - usageAddress;
+						//The address operand probably contains a symbol which is handled seperatly later on
+					}
+					else if(Utils.getLiteralValue(addressLiteral) < 0)
+					{
+						error = "Distance between jump command and destination address is too far for a relative jump";
+					}
+					else
+					{
+						final int absoluteAddress = Utils.getLiteralValue(addressLiteral);
 
-						//Actual amounts of bytes to skip
-						final int jumpBytes = addressesOffset - 2;
+						//The offset depends on the placement of the code segment, thus it is calculated by the linker
+						tokens.replaceArgument(lastOperandIndex, "0");
 
-						if(jumpBytes == (int)((byte)jumpBytes))
-						{
-							tokens.replaceArgument(lastOperandIndex, String.valueOf(jumpBytes));
-						}
-						else
+						instruction = InstructionDataBase.match(tokens);
+						if(instruction != null)
 						{
-							error = "Distance between jump command and destination address is too far for a relative jump";
+							addSymbolUsage(
+									new UnresolvedSymbol(
+											addressOperandValue,
+											absoluteAddress,
+											_objectFile.getCodeSegmentSize() + instruction.getSize() - 1, //The offset is the last byte
+											1,
+											sourceLine,
+											instruction,
+											lastOperandIndex
+											)
+									);
 						}
 					}
-					catch(final NumberFormatException ex)
-					{
-						//The address operand probably contains a symbol which is handled seperatly later on
-					}
 				}
 				else if(tokens.getCommand().equals("LD") &&
 						tokens.getArgumentsCount() == 2 &&
@@ -975,20 +1325,38 @@ public final class Assembler
 					final int addressOperandIndex = (tokens.getArgument(0).startsWith("(")) ? 0 : 1;
 
 					final String addressOperandValue = tokens.getArgument(addressOperandIndex);
-					final String slicedAddressOperandValue = addressOperandValue.substring(1, addressOperandValue.length() - 1);
-					final int absoluteAddress = Utils.parseValue(slicedAddressOperandValue);
+					final long addressLiteral = Utils.parseLiteral(addressOperandValue, 1, addressOperandValue.length() - 1); //Within the brackets
 
-					if(absoluteAddress < 0xFF00)
+					if(Utils.isValidLiteral(addressLiteral) == false)
+					{
+						error = "Address must be a number";
+					}
+					else if(Utils.getLiteralValue(addressLiteral) < 0xFF00)
 					{
 						error = "Address must be in the range [0xFF00, 0xFFFF]";
 					}
 					else
 					{
-						tokens.replaceArgument(addressOperandIndex, String.format("(0x%02X)", absoluteAddress - 0xFF00));
+						tokens.replaceArgument(addressOperandIndex, String.format("(0x%02X)", Utils.getLiteralValue(addressLiteral) - 0xFF00));
 					}
 				}
 
-				instruction = InstructionDataBase.match(tokens);
+				int symbolArgumentIndex = -1;
+
+				if(instruction == null)
+				{
+					//A symbol doesn't match any operand, thus it is matched as an address right away
+					symbolArgumentIndex = getFirstSymbolArgumentIndex(tokens);
+
+					instruction = (symbolArgumentIndex < 0) ?
+							InstructionDataBase.match(tokens) :
+								getInstructionPlaceHolder(
+										tokens,
+										symbolArgumentIndex,
+										sourceLine
+										);
+				}
+
 				if(instruction == null)
 				{
 					final int i = InstructionDataBase.getFirstUnrecognizedParameterIndex(tokens);
@@ -999,11 +1367,15 @@ public final class Assembler
 					}
 					else
 					{
-						instruction = getInstructionPlaceHolder(
-								tokens,
-								i,
-								sourceLine
-								);
+						if(symbolArgumentIndex < 0) //Otherwise, no other argument can be the address
+						{
+							instruction = getInstructionPlaceHolder(
+									tokens,
+									i,
+									sourceLine
+									);
+						}
+
 						if(instruction == null)
 						{
 							error = String.format("Parameter `%d` doesn't fit for instruction `%s`",
@@ -1018,7 +1390,42 @@ public final class Assembler
 
 		if(error == null)
 		{
-			_objectFile.appendCode(instruction.assemble(tokens));
+			final int instructionAddress = _objectFile.reserveCode(instruction.getSize());
+			instruction.encode(tokens, _objectFile.getCodeSegment(), instructionAddress);
+
+			//Addresses of variables were substituted by `translateVariableSymbols`
+			for(int i = 0; i < tokens.getArgumentsCount(); i++)
+			{
+				if(tokens.getSubstitutedSymbol(i) != null && instruction.getParameter(i).getCodeSize() == 2)
+				{
+					final Symbol variableSymbol = _objectFile.getSymbolTable().findSymbol(
+							tokens.getSubstitutedSymbol(i)
+							);
+
+					if(variableSymbol == null) //Not defined (yet) by this object
+					{
+						_objectFile.addRelocation(
+								new Relocation(
+										instructionAddress + getOperandOffset(instruction, i),
+										Relocation.Type.ABSOLUTE_ADDRESS,
+										tokens.getSubstitutedSymbol(i),
+										sourceLine.getFileName(),
+										sourceLine.getLineNumber()
+										)
+								);
+					}
+					else
+					{
+						addRelocation(
+								instructionAddress + getOperandOffset(instruction, i),
+								Relocation.Type.ABSOLUTE_ADDRESS,
+								Relocation.Target.DATA_SEGMENT,
+								variableSymbol.getAddress(),
+								sourceLine
+								);
+					}
+				}
+			}
 		}
 
 		handleError(
@@ -1049,11 +1456,7 @@ public final class Assembler
 				}
 				else
 				{
-					int location = _objectFile.getCodeSegmentSize() + instruction.getSize();
-					for(int i = argumentIndex; i < instruction.getParametersCount(); i++)
-					{
-						location -= instruction.getParameter(i).getCodeSize();
-					}
+					final int location = _objectFile.getCodeSegmentSize() + getOperandOffset(instruction, argumentIndex);
 
 					final UnresolvedSymbol unresolvedSymbol =
 							new UnresolvedSymbol(
@@ -1065,18 +1468,77 @@ public final class Assembler
 									argumentIndex
 									);
 
-					_unresolvedSymbols.add(unresolvedSymbol);
+					addSymbolUsage(unresolvedSymbol);
 				}
 			}
 			else
 			{
-				Utils.abort("Unreasonable condition achived");
+				instruction = null; //A constant operand (e.g. a bit's index) can't be substituted by an address
 			}
 		}
 
+		if(instruction == null)
+		{
+			tokens.replaceArgument(argumentIndex, argument); //Restored, for the error to be reported
+		}
+
 		return instruction;
 	}
 
+	/**
+	 * @return The index of the first argument that is a symbol, or -1 if none is
+	 */
+	private static int getFirstSymbolArgumentIndex(
+			final CommandTokens tokens
+			)
+	{
+		for(int i = 0; i < tokens.getArgumentsCount(); i++)
+		{
+			if(tokens.getClassifiedArgument(i).getKind() == OperandToken.Kind.SYMBOL)
+			{
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * @return The offset of an operand's value from the beginning of the instruction's code
+	 */
+	private static int getOperandOffset(
+			final InstructionTemplate instruction,
+			final int operandIndex
+			)
+	{
+		int offset = instruction.getSize();
+		for(int i = operandIndex; i < instruction.getParametersCount(); i++)
+		{
+			offset -= instruction.getParameter(i).getCodeSize();
+		}
+
+		return offset;
+	}
+
+	/**
+	 * @return The texts of the line's tokens that weren't consumed
+	 */
+	private static String[] getWords(
+			final SourceLine sourceLine
+			)
+	{
+		final TokenStream tokens = sourceLine.getTokens();
+		final int firstTokenIndex = sourceLine.getFirstTokenIndex();
+
+		final String[] words = new String[tokens.getTokensCount() - firstTokenIndex];
+		for(int i = 0; i < words.length; i++)
+		{
+			words[i] = tokens.getToken(firstTokenIndex + i);
+		}
+
+		return words;
+	}
+
 	private ObjectFile getObjectFile()
 	{
 		return _objectFile;
@@ -1099,14 +1561,13 @@ public final class Assembler
 			final int sourceLineNumber
 			)
 	{
-		for(final Function function : _functions)
+		if(_openFunctions.isEmpty() == false)
 		{
-			if(function.isOwnerOf(sourceLineNumber))
-			{
-				return function;
-			}
+			return _openFunctions.peek(); //Streaming mode, where the current line is owned by the function being translated
 		}
 
-		return null;
+		return _functionScopes.getOwner(
+				sourceLineNumber
+				);
 	}
 }
@@ -0,0 +1,162 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.core;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.RecursiveTask;
+
+import open_source.amuyal_tal.yagbc2a.HandledException;
+import open_source.amuyal_tal.yagbc2a.InternalErrorException;
+import open_source.amuyal_tal.yagbc2a.core.object.ObjectFile;
+import open_source.amuyal_tal.yagbc2a.parsing.SourceFile;
+import open_source.amuyal_tal.yagbc2a.utils.Utils;
+
+/**
+ * Reads and assembles a single source file, so independent source files can be assembled concurrently
+ * (e.g. on a {@link java.util.concurrent.ForkJoinPool}).
+ *
+ * The result is `null` if the file couldn't be assembled, in which case a proper message has been displayed.
+ */
+public final class AssemblyTask extends RecursiveTask<ObjectFile>
+{
+	private static final long serialVersionUID = 1L;
+
+	private final String _sourceFilePath;
+	private final boolean _isStreaming;
+	private final BuildCache _buildCache; //`null` if no cache is used
+	private final BuildStatistics _statistics; //`null` if no figures are recorded
+
+	public AssemblyTask(
+			final String sourceFilePath,
+			final boolean isStreaming
+			)
+	{
+		this(sourceFilePath, isStreaming, null);
+	}
+
+	/**
+	 * @param buildCache Serves the object if the source file is unchanged, and stores it otherwise
+	 */
+	public AssemblyTask(
+			final String sourceFilePath,
+			final boolean isStreaming,
+			final BuildCache buildCache
+			)
+	{
+		this(sourceFilePath, isStreaming, buildCache, null);
+	}
+
+	/**
+	 * @param buildCache Serves the object if the source file is unchanged, and stores it otherwise
+	 * @param statistics Records the figures of each pass (may be `null`)
+	 */
+	public AssemblyTask(
+			final String sourceFilePath,
+			final boolean isStreaming,
+			final BuildCache buildCache,
+			final BuildStatistics statistics
+			)
+	{
+		_sourceFilePath = sourceFilePath;
+		_isStreaming = isStreaming;
+		_buildCache = buildCache;
+		_statistics = statistics;
+	}
+
+	public String getSourceFilePath()
+	{
+		return _sourceFilePath;
+	}
+
+	@Override
+	protected ObjectFile compute()
+	{
+		try
+		{
+			String cacheKey = null;
+			byte[] sourceContent = null; //The hashed content, which is the one assembled
+
+			//The standard input is read as it is assembled, thus it can't be served from the cache
+			final boolean isStandardInput = _sourceFilePath.equals(SourceFile.STANDARD_INPUT_PATH);
+			final boolean isCached = (_buildCache != null) && (isStandardInput == false);
+
+			if(isCached)
+			{
+				sourceContent = readSourceContent();
+				cacheKey = _buildCache.computeKey(
+						_sourceFilePath,
+						sourceContent,
+						_isStreaming
+						);
+
+				final ObjectFile cachedObjectFile = _buildCache.load(_sourceFilePath, cacheKey);
+				if(cachedObjectFile != null)
+				{
+					return cachedObjectFile;
+				}
+			}
+
+			final SourceFile sourceFile = new SourceFile();
+			if(isStandardInput)
+			{
+				sourceFile.readStream(System.in, SourceFile.STANDARD_INPUT_NAME);
+			}
+			else if(isCached)
+			{
+				sourceFile.readContent(_sourceFilePath, sourceContent); //The file may have changed since it was hashed
+			}
+			else
+			{
+				sourceFile.readFile(_sourceFilePath);
+			}
+
+			final ObjectFile objectFile = _isStreaming ?
+					Assembler.assembleStreaming(sourceFile, _statistics) :
+					Assembler.assemble(sourceFile, _statistics);
+
+			if(isCached)
+			{
+				_buildCache.store(_sourceFilePath, cacheKey, objectFile);
+			}
+
+			return objectFile;
+		}
+		catch(final HandledException | InternalErrorException ex)
+		{
+			return null; //An error accrued and a proper message has been displayed
+		}
+	}
+
+	private byte[] readSourceContent() throws HandledException
+	{
+		try
+		{
+			return Files.readAllBytes(Paths.get(_sourceFilePath));
+		}
+		catch(final Throwable throwable)
+		{
+			Utils.displayError(throwable);
+
+			throw new HandledException();
+		}
+	}
+}
@@ -0,0 +1,276 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.core;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import open_source.amuyal_tal.yagbc2a.HandledException;
+import open_source.amuyal_tal.yagbc2a.core.object.ObjectFile;
+import open_source.amuyal_tal.yagbc2a.core.object.ObjectFileFormat;
+import open_source.amuyal_tal.yagbc2a.utils.Utils;
+
+/**
+ * A directory of previously assembled objects, keyed by a hash of everything the assembly depends on: the
+ * assembler's version and classes, the assembly mode, the source file's path (which objects refer to in error
+ * messages) and the source file's content.
+ *
+ * The latest object of each source file is also kept in memory, for processes that build repeatedly (e.g. a
+ * build server). Entries are written to a temporary file and then moved into place, thus concurrent builds
+ * that share a directory never read partial entries.
+ */
+public final class BuildCache
+{
+	private static final String HASH_ALGORITHM = "SHA-256";
+	private static final String CLASS_FILE_EXTENSION = ".class";
+
+	/**
+	 * A hash of the assembler's classes, thus a changed assembler never serves objects of a previous one (even if
+	 * the version wasn't bumped). Computed once, by the first cache of the process.
+	 */
+	private static final class AssemblerFingerprint
+	{
+		private static final byte[] VALUE = computeAssemblerFingerprint();
+	}
+
+	private static final class Entry
+	{
+		private final String _key;
+		private final ObjectFile _objectFile;
+
+		private Entry(
+				final String key,
+				final ObjectFile objectFile
+				)
+		{
+			_key = key;
+			_objectFile = objectFile;
+		}
+	}
+
+	private final Path _directory; //`null` if entries are kept in memory only
+	private final String _version;
+	private final Map<String, Entry> _recentEntries; //Source file path to its latest entry
+
+	/**
+	 * @param directoryPath The directory of the entries, or `null` to keep entries in memory only
+	 * @param version The assembler's version, as objects of other versions may not be compatible
+	 */
+	public BuildCache(
+			final String directoryPath,
+			final String version
+			)
+	{
+		_directory = (directoryPath == null) ? null : Paths.get(directoryPath);
+		_version = version;
+		_recentEntries = new ConcurrentHashMap<String, Entry>();
+	}
+
+	public String computeKey(
+			final String sourceFilePath,
+			final byte[] sourceContent,
+			final boolean isStreaming
+			)
+	{
+		try
+		{
+			final MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+
+			digest.update(_version.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte)0);
+			digest.update(AssemblerFingerprint.VALUE);
+			digest.update((byte)(isStreaming ? 1 : 0));
+			digest.update(sourceFilePath.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte)0);
+			digest.update(sourceContent);
+
+			final StringBuilder key = new StringBuilder();
+			for(final byte b : digest.digest())
+			{
+				key.append(String.format("%02x", b & 0xFF));
+			}
+
+			return key.toString();
+		}
+		catch(final NoSuchAlgorithmException ex)
+		{
+			Utils.abort(ex); //Every Java platform supports SHA-256
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return A hash of the classes the assembler was loaded from (a directory or a JAR), or an empty hash if they
+	 *  can't be read (in which case, only the version identifies the assembler)
+	 */
+	private static byte[] computeAssemblerFingerprint()
+	{
+		try
+		{
+			final MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+			final Path location = Paths.get(BuildCache.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+			if(Files.isDirectory(location))
+			{
+				final List<Path> classFiles = new ArrayList<Path>();
+				try(final Stream<Path> files = Files.walk(location))
+				{
+					final Iterator<Path> iterator = files.iterator();
+					while(iterator.hasNext())
+					{
+						final Path path = iterator.next();
+						if(path.toString().endsWith(CLASS_FILE_EXTENSION))
+						{
+							classFiles.add(path);
+						}
+					}
+				}
+				Collections.sort(classFiles); //The walking order is unspecified
+
+				for(final Path classFile : classFiles)
+				{
+					digest.update(location.relativize(classFile).toString().getBytes(StandardCharsets.UTF_8));
+					digest.update((byte)0);
+					digest.update(Files.readAllBytes(classFile));
+				}
+			}
+			else
+			{
+				digest.update(Files.readAllBytes(location));
+			}
+
+			return digest.digest();
+		}
+		catch(final Throwable throwable)
+		{
+			return new byte[0];
+		}
+	}
+
+	/**
+	 * @return The cached object, or `null` if there is no (valid) entry for the key
+	 */
+	public ObjectFile load(
+			final String sourceFilePath,
+			final String key
+			)
+	{
+		final Entry recentEntry = _recentEntries.get(sourceFilePath);
+		if(recentEntry != null && recentEntry._key.equals(key))
+		{
+			return recentEntry._objectFile;
+		}
+
+		if(_directory == null)
+		{
+			return null;
+		}
+
+		final Path entryPath = getEntryPath(key);
+
+		if(Files.isRegularFile(entryPath) == false)
+		{
+			return null;
+		}
+
+		try(final FileChannel channel = FileChannel.open(entryPath, StandardOpenOption.READ))
+		{
+			final ObjectFile objectFile = ObjectFileFormat.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+
+			_recentEntries.put(sourceFilePath, new Entry(key, objectFile));
+
+			return objectFile;
+		}
+		catch(final Throwable throwable)
+		{
+			return null; //A corrupted entry is the same as a missing one, and is replaced once stored
+		}
+	}
+
+	public void store(
+			final String sourceFilePath,
+			final String key,
+			final ObjectFile objectFile
+			) throws HandledException
+	{
+		_recentEntries.put(sourceFilePath, new Entry(key, objectFile)); //Replaces the entry of a previous content
+
+		if(_directory == null)
+		{
+			return;
+		}
+
+		try
+		{
+			Files.createDirectories(_directory);
+
+			final Path temporaryPath = Files.createTempFile(_directory, key, ".tmp");
+
+			try
+			{
+				ObjectFileFormat.write(objectFile, temporaryPath.toString());
+
+				Files.move(
+						temporaryPath,
+						getEntryPath(key),
+						StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE
+						);
+			}
+			finally
+			{
+				Files.deleteIfExists(temporaryPath);
+			}
+		}
+		catch(final HandledException ex)
+		{
+			throw ex;
+		}
+		catch(final Throwable throwable)
+		{
+			Utils.displayError(throwable);
+
+			throw new HandledException();
+		}
+	}
+
+	private Path getEntryPath(
+			final String key
+			)
+	{
+		return _directory.resolve(key + ObjectFileFormat.FILE_EXTENSION);
+	}
+}
@@ -0,0 +1,281 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.core;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-pass figures of a build: wall time, lines processed, bytes emitted and bytes allocated.
+ *
+ * Figures are grouped by units (a source file, or the linking of the image). Units may be assembled
+ * concurrently, thus recording is synchronized; allocations are measured per thread, thus a pass must begin
+ * and end on the same thread.
+ */
+public final class BuildStatistics
+{
+	/**
+	 * The unit of the linker's figures
+	 */
+	public static final String LINK_UNIT_NAME = "<link>";
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	/**
+	 * The state at the beginning of a pass
+	 */
+	static final class Measurement
+	{
+		private final long _startTime;
+		private final long _startAllocatedBytes;
+
+		private Measurement()
+		{
+			_startTime = System.nanoTime();
+			_startAllocatedBytes = getAllocatedBytes();
+		}
+	}
+
+	private static final class Pass
+	{
+		private final String _name;
+		private final long _wallTime; //In nanoseconds
+		private final long _linesCount;
+		private final long _emittedBytesCount;
+		private final long _allocatedBytesCount; //-1 if unknown
+
+		private Pass(
+				final String name,
+				final long wallTime,
+				final long linesCount,
+				final long emittedBytesCount,
+				final long allocatedBytesCount
+				)
+		{
+			_name = name;
+			_wallTime = wallTime;
+			_linesCount = linesCount;
+			_emittedBytesCount = emittedBytesCount;
+			_allocatedBytesCount = allocatedBytesCount;
+		}
+	}
+
+	private final Map<String, List<Pass>> _units; //Unit name to its passes, in the order of the units' addition
+
+	public BuildStatistics()
+	{
+		_units = new LinkedHashMap<String, List<Pass>>();
+	}
+
+	/**
+	 * Reserves the position of a unit, thus units are displayed in a stable order (e.g. the order of the input
+	 * files) regardless of the order they are processed in
+	 */
+	public synchronized void addUnit(
+			final String unitName
+			)
+	{
+		if(_units.containsKey(unitName) == false)
+		{
+			_units.put(unitName, new ArrayList<Pass>());
+		}
+	}
+
+	static Measurement begin()
+	{
+		return new Measurement();
+	}
+
+	/**
+	 * Records a pass that began with {@link #begin()}, on the current thread
+	 */
+	synchronized void record(
+			final String unitName,
+			final String passName,
+			final long linesCount,
+			final long emittedBytesCount,
+			final Measurement measurement
+			)
+	{
+		final long wallTime = System.nanoTime() - measurement._startTime;
+
+		final long allocatedBytes = getAllocatedBytes();
+		final long allocatedBytesCount = (allocatedBytes < 0 || measurement._startAllocatedBytes < 0) ?
+				-1 :
+				allocatedBytes - measurement._startAllocatedBytes;
+
+		addUnit(unitName);
+		_units.get(unitName).add(new Pass(
+				passName,
+				wallTime,
+				linesCount,
+				emittedBytesCount,
+				allocatedBytesCount
+				));
+	}
+
+	/**
+	 * Prints the figures as a table per unit
+	 */
+	public synchronized void print(
+			final PrintStream out
+			)
+	{
+		for(final Map.Entry<String, List<Pass>> unit : _units.entrySet())
+		{
+			if(unit.getValue().isEmpty())
+			{
+				continue; //E.g. served from a cache
+			}
+
+			out.println("Statistics of `" + unit.getKey() + "`:");
+			out.println(String.format(
+					"\t%-28s %12s %10s %10s %14s",
+					"Pass",
+					"Time (us)",
+					"Lines",
+					"Emitted",
+					"Allocated"
+					));
+
+			for(final Pass pass : unit.getValue())
+			{
+				out.println(String.format(
+						"\t%-28s %12.1f %10d %10d %14s",
+						pass._name,
+						pass._wallTime / 1000.0,
+						pass._linesCount,
+						pass._emittedBytesCount,
+						(pass._allocatedBytesCount < 0) ? "?" : Long.toString(pass._allocatedBytesCount)
+						));
+			}
+		}
+	}
+
+	/**
+	 * Prints the figures as a JSON object: `{"units":[{"name":..., "passes":[{"name":..., "wallTimeNanos":...,
+	 * "lines":..., "emittedBytes":..., "allocatedBytes":...}, ...]}, ...]}`, where unknown allocations are -1
+	 */
+	public synchronized void printJson(
+			final PrintStream out
+			)
+	{
+		final StringBuilder json = new StringBuilder();
+
+		json.append("{\"units\":[");
+
+		boolean isFirstUnit = true;
+		for(final Map.Entry<String, List<Pass>> unit : _units.entrySet())
+		{
+			if(unit.getValue().isEmpty())
+			{
+				continue; //E.g. served from a cache
+			}
+
+			if(isFirstUnit == false)
+			{
+				json.append(',');
+			}
+			isFirstUnit = false;
+
+			json.append("\n{\"name\":");
+			appendJsonString(json, unit.getKey());
+			json.append(",\"passes\":[");
+
+			boolean isFirstPass = true;
+			for(final Pass pass : unit.getValue())
+			{
+				if(isFirstPass == false)
+				{
+					json.append(',');
+				}
+				isFirstPass = false;
+
+				json.append("\n\t{\"name\":");
+				appendJsonString(json, pass._name);
+				json.append(",\"wallTimeNanos\":").append(pass._wallTime);
+				json.append(",\"lines\":").append(pass._linesCount);
+				json.append(",\"emittedBytes\":").append(pass._emittedBytesCount);
+				json.append(",\"allocatedBytes\":").append(pass._allocatedBytesCount);
+				json.append('}');
+			}
+
+			json.append("]}");
+		}
+
+		json.append("\n]}");
+
+		out.println(json);
+	}
+
+	private static void appendJsonString(
+			final StringBuilder json,
+			final String string
+			)
+	{
+		json.append('"');
+
+		for(int i = 0; i < string.length(); i++)
+		{
+			final char c = string.charAt(i);
+
+			if(c == '"' || c == '\\')
+			{
+				json.append('\\').append(c);
+			}
+			else if(c < 0x20)
+			{
+				json.append(String.format("\\u%04x", (int)c));
+			}
+			else
+			{
+				json.append(c);
+			}
+		}
+
+		json.append('"');
+	}
+
+	/**
+	 * @return The bytes allocated so far by the current thread, or -1 if the JVM doesn't measure allocations
+	 */
+	private static long getAllocatedBytes()
+	{
+		if((THREADS instanceof com.sun.management.ThreadMXBean) == false)
+		{
+			return -1;
+		}
+
+		final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)THREADS;
+
+		if(threads.isThreadAllocatedMemorySupported() == false || threads.isThreadAllocatedMemoryEnabled() == false)
+		{
+			return -1;
+		}
+
+		return threads.getCurrentThreadAllocatedBytes();
+	}
+}
@@ -0,0 +1,106 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.core;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import open_source.amuyal_tal.yagbc2a.core.object.SymbolTable;
+import open_source.amuyal_tal.yagbc2a.core.object.UnresolvedSymbol;
+import open_source.amuyal_tal.yagbc2a.utils.adt.IntMap;
+
+/**
+ * Usages of symbols that aren't defined yet (forward references), by the scope they are looked up in and by
+ * the ids of the symbols' names.
+ *
+ * A usage is registered once and is patched as soon as its symbol is defined, so no pass over all of the
+ * usages is needed at the end of the assembly.
+ */
+final class FixupTable
+{
+	private final Map<SymbolTable, IntMap<List<UnresolvedSymbol>>> _fixups; //Symbol tables are compared by identity
+
+	public FixupTable()
+	{
+		_fixups = new IdentityHashMap<SymbolTable, IntMap<List<UnresolvedSymbol>>>();
+	}
+
+	/**
+	 * @param scope The symbol table the usage's symbol is expected to be defined in
+	 * @param symbolId The id of the symbol's name
+	 */
+	public void add(
+			final SymbolTable scope,
+			final int symbolId,
+			final UnresolvedSymbol usage
+			)
+	{
+		IntMap<List<UnresolvedSymbol>> scopeFixups = _fixups.get(scope);
+		if(scopeFixups == null)
+		{
+			scopeFixups = new IntMap<List<UnresolvedSymbol>>();
+			_fixups.put(scope, scopeFixups);
+		}
+
+		List<UnresolvedSymbol> symbolFixups = scopeFixups.get(symbolId);
+		if(symbolFixups == null)
+		{
+			symbolFixups = new ArrayList<UnresolvedSymbol>(1); //Most symbols are used once before they are defined
+			scopeFixups.put(symbolId, symbolFixups);
+		}
+
+		symbolFixups.add(usage);
+	}
+
+	/**
+	 * Removes the usages of a symbol, once it is defined
+	 *
+	 * @return The usages, or `null` if the symbol wasn't used before its definition
+	 */
+	public List<UnresolvedSymbol> remove(
+			final SymbolTable scope,
+			final int symbolId
+			)
+	{
+		final IntMap<List<UnresolvedSymbol>> scopeFixups = _fixups.get(scope);
+		if(scopeFixups == null)
+		{
+			return null;
+		}
+
+		return scopeFixups.remove(symbolId);
+	}
+
+	/**
+	 * Removes the usages of all of the symbols of a scope, once no more symbols can be defined in it
+	 *
+	 * @return The usages, by the ids of the symbols' names (entries of defined symbols are removed), or `null`
+	 *  if there are none
+	 */
+	public IntMap<List<UnresolvedSymbol>> removeScope(
+			final SymbolTable scope
+			)
+	{
+		return _fixups.remove(scope);
+	}
+}
@@ -28,6 +28,7 @@ import open_source.amuyal_tal.yagbc2a.utils.Utils;
 final class Function implements AddressAssignable
 {
 	private final String _name;
+	private final int _symbolId; //The id of the name, in the owning symbol table's names
 	private final SourceLine _decelerationSourceLine;
 	private final SymbolTable _localSymbolTable;
 	private final SymbolTable _owningSymbolTable;
@@ -42,19 +43,33 @@ final class Function implements AddressAssignable
 			)
 	{
 		_name = name;
+		_symbolId = owningSymboleTable.getNames().intern(name);
 		_decelerationSourceLine = decelerationSourceLine;
 
-		_localSymbolTable = new SymbolTable();
+		_localSymbolTable = new SymbolTable(owningSymboleTable); //Chained, as function-local symbols hide the owning ones
 		_owningSymbolTable = owningSymboleTable;
 		_terminationSourceLine = null; //Unknown at the moment
 		_hasAddressAssigned = false;
 	}
 
+	@Override
 	public String getName()
 	{
 		return _name;
 	}
 
+	@Override
+	public int getSymbolId()
+	{
+		return _symbolId;
+	}
+
+	@Override
+	public SymbolTable getOwningSymbolTable()
+	{
+		return _owningSymbolTable;
+	}
+
 	public SymbolTable getLocalSymbolTable()
 	{
 		return _localSymbolTable;
@@ -70,7 +85,7 @@ final class Function implements AddressAssignable
 		_hasAddressAssigned = true;
 
 		_owningSymbolTable.insert(
-				_name,
+				_symbolId,
 				new FunctionSymbol(
 						address,
 						0
@@ -0,0 +1,110 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.core;
+
+import java.util.Arrays;
+
+import open_source.amuyal_tal.yagbc2a.utils.Utils;
+
+/**
+ * Line ranges of terminated functions, sorted by line number, for looking up the owner of a line in
+ * logarithmic time.
+ *
+ * Functions can't be nested, thus functions are terminated in the same order they are declared and their
+ * ranges don't overlap.
+ */
+final class FunctionScopes
+{
+	private static final int INITIAL_CAPACITY = 16;
+
+	private int[] _decelerationLineNumbers;
+	private int[] _terminationLineNumbers;
+	private Function[] _functions;
+	private int _count;
+
+	public FunctionScopes()
+	{
+		_decelerationLineNumbers = new int[INITIAL_CAPACITY];
+		_terminationLineNumbers = new int[INITIAL_CAPACITY];
+		_functions = new Function[INITIAL_CAPACITY];
+		_count = 0;
+	}
+
+	/**
+	 * @param function A terminated function, that is declared after all of the previously added ones
+	 */
+	public void add(
+			final Function function
+			)
+	{
+		final int decelerationLineNumber = function.getDecelerationLineNumber();
+		final int terminationLineNumber = function.getTermintaionSourceLine().getLineNumber();
+
+		Utils.assertCondition(_count == 0 || _terminationLineNumbers[_count - 1] < decelerationLineNumber);
+
+		if(_count == _functions.length)
+		{
+			_decelerationLineNumbers = Arrays.copyOf(_decelerationLineNumbers, _count * 2);
+			_terminationLineNumbers = Arrays.copyOf(_terminationLineNumbers, _count * 2);
+			_functions = Arrays.copyOf(_functions, _count * 2);
+		}
+
+		_decelerationLineNumbers[_count] = decelerationLineNumber;
+		_terminationLineNumbers[_count] = terminationLineNumber;
+		_functions[_count] = function;
+		_count++;
+	}
+
+	/**
+	 * @return The function that owns the line, or `null` if the line is not owned by any function
+	 */
+	public Function getOwner(
+			final int sourceLineNumber
+			)
+	{
+		//Search for the last function that is declared before the line
+		int low = 0;
+		int high = _count - 1;
+		int candidate = -1;
+
+		while(low <= high)
+		{
+			final int middle = (low + high) >>> 1;
+
+			if(_decelerationLineNumbers[middle] < sourceLineNumber)
+			{
+				candidate = middle;
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle - 1;
+			}
+		}
+
+		if(candidate != -1 && sourceLineNumber < _terminationLineNumbers[candidate])
+		{
+			return _functions[candidate];
+		}
+
+		return null;
+	}
+}
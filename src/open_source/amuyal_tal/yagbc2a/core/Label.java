@@ -27,25 +27,43 @@ import open_source.amuyal_tal.yagbc2a.utils.Utils;
 
 public class Label implements AddressAssignable
 {
-	private final String _name;
+	private final int _symbolId; //The id of the name, in the owning symbol table's names
 	private final SourceLine _decelerationSourceLine;
 	private final SymbolTable _owningSymbolTable;
 
 	private boolean _hasAddressAssigned;
 
 	public Label(
-			final String name,
+			final int symbolId,
 			final SourceLine decelerationSourceLine,
 			final SymbolTable owningSymbolTable
 			)
 	{
-		_name = name;
+		_symbolId = symbolId;
 		_decelerationSourceLine = decelerationSourceLine;
 		_owningSymbolTable = owningSymbolTable;
 
 		_hasAddressAssigned = false;
 	}
 
+	@Override
+	public String getName()
+	{
+		return _owningSymbolTable.getNames().getName(_symbolId);
+	}
+
+	@Override
+	public int getSymbolId()
+	{
+		return _symbolId;
+	}
+
+	@Override
+	public SymbolTable getOwningSymbolTable()
+	{
+		return _owningSymbolTable;
+	}
+
 	@Override
 	public void assignAddress(
 			final int address
@@ -56,7 +74,7 @@ public class Label implements AddressAssignable
 		_hasAddressAssigned = true;
 
 		_owningSymbolTable.insert(
-				_name,
+				_symbolId,
 				new LabelSymbol(
 						address
 						)
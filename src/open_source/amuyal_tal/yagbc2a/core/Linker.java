@@ -20,16 +20,27 @@
 
 package open_source.amuyal_tal.yagbc2a.core;
 
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import open_source.amuyal_tal.yagbc2a.HandledException;
 import open_source.amuyal_tal.yagbc2a.core.object.LabelSymbol;
 import open_source.amuyal_tal.yagbc2a.core.object.ObjectFile;
+import open_source.amuyal_tal.yagbc2a.core.object.Relocation;
 import open_source.amuyal_tal.yagbc2a.core.object.StringVariableSymbol;
 import open_source.amuyal_tal.yagbc2a.core.object.Symbol;
 import open_source.amuyal_tal.yagbc2a.core.object.SymbolTable;
+import open_source.amuyal_tal.yagbc2a.core.object.VariableSymbol;
 import open_source.amuyal_tal.yagbc2a.core.object.cartridge.BootHeader;
 import open_source.amuyal_tal.yagbc2a.utils.Utils;
 import open_source.amuyal_tal.yagbc2a.utils.adt.BytesArray;
@@ -43,88 +54,448 @@ public class Linker
 		public static final String MANUFACTURER_CODE = "__manufacturer_code";
 	}
 
-	private ObjectFile _objectFile;
+	private final List<ObjectFile> _objectFiles;
+	private ObjectFile _objectFile; //The linked objects (linked on demand)
+	private BuildStatistics _statistics; //`null` if no figures are recorded
 
 	public Linker()
 	{
+		_objectFiles = new ArrayList<ObjectFile>();
 		_objectFile = null;
+		_statistics = null;
 	}
 
+	/**
+	 * @param statistics Records the figures of linking and of emitting the image (may be `null`)
+	 */
+	public void setStatistics(
+			final BuildStatistics statistics
+			)
+	{
+		_statistics = statistics;
+	}
+
+	/**
+	 * Adds an object to the image. Objects are placed in the order they are added.
+	 */
 	public void linkObject(
 			final ObjectFile objectFile
 			)
 	{
-		_objectFile = objectFile;
+		_objectFiles.add(objectFile);
+		_objectFile = null;
 	}
 
+	/**
+	 * Writes the linked image to a file, using a single bulk write
+	 */
 	public void emit(
 			final String filePath
 			) throws HandledException
 	{
+		final ByteBuffer image = ByteBuffer.wrap(assembleImage());
+
+		FileChannel channel = null;
+		try
+		{
+			channel = FileChannel.open(
+					Paths.get(filePath),
+					StandardOpenOption.WRITE,
+					StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING
+					);
+
+			writeFully(channel, image);
+		}
+		catch(final Throwable throwable)
+		{
+			Utils.displayError(throwable);
+
+			throw new HandledException();
+		}
+		finally
+		{
+			if(channel != null)
+			{
+				try
+				{
+					channel.close();
+				}
+				catch(final Throwable throwable)
+				{
+					Utils.displayError(throwable);
+
+					throw new HandledException();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the linked image to a stream (e.g. a socket of a build server). The stream is not closed.
+	 */
+	public void emit(
+			final OutputStream out
+			) throws HandledException
+	{
+		final byte[] image = assembleImage();
+
+		try
+		{
+			out.write(image);
+			out.flush();
+		}
+		catch(final Throwable throwable)
+		{
+			Utils.displayError(throwable);
+
+			throw new HandledException();
+		}
+	}
+
+	/**
+	 * Writes the linked image to a channel. The channel is not closed.
+	 */
+	public void emit(
+			final WritableByteChannel channel
+			) throws HandledException
+	{
+		final ByteBuffer image = ByteBuffer.wrap(assembleImage());
+
+		try
+		{
+			writeFully(channel, image);
+		}
+		catch(final Throwable throwable)
+		{
+			Utils.displayError(throwable);
+
+			throw new HandledException();
+		}
+	}
+
+	/**
+	 * @return The complete image (boot header, data segment and code segment) in a single contiguous buffer
+	 */
+	public byte[] assembleImage() throws HandledException
+	{
+		if(_statistics != null && _objectFile == null)
+		{
+			final BuildStatistics.Measurement measurement = BuildStatistics.begin();
+
+			link();
+
+			_statistics.record(BuildStatistics.LINK_UNIT_NAME, "link", 0, 0, measurement);
+		}
+		else
+		{
+			link();
+		}
+
+		final BuildStatistics.Measurement measurement = (_statistics == null) ? null : BuildStatistics.begin();
+
 		final List<BytesArray> sections = new ArrayList<BytesArray>();
 
 		sections.add(assembleBootHeader());
 		sections.add(_objectFile.getDataSegmentSection(0, _objectFile.getDataSegmentSize()));
 		sections.add(_objectFile.getCodeSegmentSection(0, _objectFile.getCodeSegmentSize()));
 
-		FileOutputStream out = null;
-		try
+		int imageSize = 0;
+		for(final BytesArray section : sections)
+		{
+			imageSize += section.getSize();
+		}
+
+		final byte[] image = new byte[imageSize];
+
+		int offset = 0;
+		for(final BytesArray section : sections)
+		{
+			section.copyTo(0, image, offset, section.getSize());
+			offset += section.getSize();
+		}
+
+		if(_statistics != null)
+		{
+			_statistics.record(BuildStatistics.LINK_UNIT_NAME, "assembleImage", 0, image.length, measurement);
+		}
+
+		return image;
+	}
+
+	private static void writeFully(
+			final WritableByteChannel channel,
+			final ByteBuffer buffer
+			) throws IOException
+	{
+		while(buffer.hasRemaining())
 		{
-			out = new FileOutputStream(filePath);
+			channel.write(buffer); //A single call, unless the channel accepts partial writes
+		}
+	}
+
+	/**
+	 * @return The linked objects, as a single object (the segments and symbols are as placed in the image,
+	 *  following the boot header)
+	 */
+	public ObjectFile getLinkedObject() throws HandledException
+	{
+		link();
+
+		return _objectFile;
+	}
+
+	/**
+	 * Merges the objects into a single object: the data segments are placed one after the other, followed by
+	 * the code segments (in the same order). Once the segments are placed and the global symbols are merged,
+	 * all of the relocations are patched in a single pass.
+	 */
+	private void link() throws HandledException
+	{
+		if(_objectFile != null)
+		{
+			return; //Already linked
+		}
+
+		Utils.assertCondition(_objectFiles.isEmpty() == false);
 
-			for(final BytesArray section : sections)
+		final List<String> errors = new LinkedList<String>();
+		final ObjectFile linkedObject = new ObjectFile(_objectFiles.get(0).getName());
+		final SymbolTable linkedSymbolTable = linkedObject.getSymbolTable();
+		final Map<String, String> symbolsDefiners = new HashMap<String, String>(); //Symbol name to its object's name
+
+		//Placement (offsets in the linked segments)
+		final int[] dataOffsets = new int[_objectFiles.size()];
+		final int[] codeOffsets = new int[_objectFiles.size()];
+
+		for(int i = 0; i < _objectFiles.size(); i++)
+		{
+			final ObjectFile objectFile = _objectFiles.get(i);
+
+			dataOffsets[i] = linkedObject.getDataSegmentSize();
+			codeOffsets[i] = linkedObject.getCodeSegmentSize();
+
+			linkedObject.appendData(objectFile.getDataSegmentSection(0, objectFile.getDataSegmentSize()));
+			linkedObject.appendCode(objectFile.getCodeSegmentSection(0, objectFile.getCodeSegmentSize()));
+
+			for(final Map.Entry<String, Symbol> entry : objectFile.getSymbolTable().getSymbols().entrySet())
 			{
-				for(int i = 0; i < section.getSize(); i++)
+				final String name = entry.getKey();
+				final Symbol symbol = entry.getValue();
+
+				if(linkedSymbolTable.isSymbolDefined(name))
 				{
-					out.write(section.getAt(i));
+					errors.add(String.format(
+							"Duplicate symbol `%s` - defined in `%s` and in `%s`",
+							name,
+							symbolsDefiners.get(name),
+							objectFile.getName()
+							));
+					continue;
 				}
+
+				linkedSymbolTable.insert(
+						name,
+						symbol.relocate((symbol instanceof VariableSymbol) ? dataOffsets[i] : codeOffsets[i])
+						);
+				symbolsDefiners.put(name, objectFile.getName());
 			}
+		}
 
-			out.close();
+		//Absolute addresses of the linked segments
+		final int dataSegmentAddress = BootHeader.getSize();
+		final int codeSegmentAddress = dataSegmentAddress + linkedObject.getDataSegmentSize();
+
+		//Patching
+		for(int i = 0; i < _objectFiles.size(); i++)
+		{
+			for(final Relocation relocation : _objectFiles.get(i).getRelocations())
+			{
+				int targetAddress = 0;
+				switch(relocation.getTarget())
+				{
+					case DATA_SEGMENT:
+					{
+						targetAddress = dataSegmentAddress + dataOffsets[i] + relocation.getTargetAddress();
+					}
+					break;
+
+					case CODE_SEGMENT:
+					{
+						targetAddress = codeSegmentAddress + codeOffsets[i] + relocation.getTargetAddress();
+					}
+					break;
+
+					case ABSOLUTE:
+					{
+						targetAddress = relocation.getTargetAddress();
+					}
+					break;
+
+					case SYMBOL:
+					{
+						final Symbol symbol = linkedSymbolTable.findSymbol(relocation.getSymbolName());
+						if(symbol == null)
+						{
+							errors.add(formatError(
+									String.format("Unrecognized symbol `%s`", relocation.getSymbolName()),
+									relocation
+									));
+							continue;
+						}
+
+						targetAddress = ((symbol instanceof VariableSymbol) ? dataSegmentAddress : codeSegmentAddress) + symbol.getAddress();
+					}
+					break;
+				}
+
+				final String error = patch(
+						linkedObject,
+						codeOffsets[i] + relocation.getLocation(),
+						codeSegmentAddress,
+						relocation,
+						targetAddress
+						);
+
+				if(error != null)
+				{
+					errors.add(formatError(error, relocation));
+				}
+			}
 		}
-		catch(final Throwable throwable)
+
+		reportErrors(errors);
+
+		_objectFile = linkedObject;
+	}
+
+	/**
+	 * Displays the errors (if any), and fails the link
+	 */
+	private static void reportErrors(
+			final List<String> errors
+			) throws HandledException
+	{
+		if(errors.isEmpty())
 		{
-			Utils.displayError(throwable);
+			return;
+		}
 
-			throw new HandledException();
+		System.out.println("Errors:");
+		for(final String error : errors)
+		{
+			System.out.println(error);
 		}
-		finally
+
+		throw new HandledException();
+	}
+
+	/**
+	 * Writes a relocation's value to the linked code segment
+	 *
+	 * @param location The offset of the value in the linked code segment
+	 * @return An error, or `null` if the value has been written
+	 */
+	private static String patch(
+			final ObjectFile linkedObject,
+			final int location,
+			final int codeSegmentAddress,
+			final Relocation relocation,
+			final int targetAddress
+			)
+	{
+		byte[] value = null;
+
+		switch(relocation.getType())
 		{
-			if(out != null)
+			case ABSOLUTE_ADDRESS:
 			{
-				try
+				if(targetAddress < 0 || targetAddress > 0xFFFF)
 				{
-					out.close();
+					return "Address must be in the range [0x0000, 0xFFFF]";
 				}
-				catch(final Throwable throwable)
+
+				value = new byte[] { (byte)(targetAddress & 0xFF), (byte)(targetAddress >> 8) }; //Little endian
+			}
+			break;
+
+			case RELATIVE_JUMP:
+			{
+				//The jump is relative to the address of the next instruction, which follows the value
+				final int jumpBytes = targetAddress - (codeSegmentAddress + location + 1);
+
+				if(jumpBytes != (int)((byte)jumpBytes))
 				{
-					Utils.displayError(throwable);
+					return "Distance between jump command and destination address is too far for a relative jump";
+				}
 
-					throw new HandledException();
+				value = new byte[] { (byte)jumpBytes };
+			}
+			break;
+
+			case HIGH_ADDRESS:
+			{
+				if(targetAddress < 0xFF00 || targetAddress > 0xFFFF)
+				{
+					return "Address must be in the range [0xFF00, 0xFFFF]";
 				}
+
+				value = new byte[] { (byte)(targetAddress - 0xFF00) };
 			}
+			break;
 		}
+
+		linkedObject.setCodeSegmentSection(
+				location,
+				value
+				);
+
+		return null;
+	}
+
+	private static String formatError(
+			final String error,
+			final Relocation relocation
+			)
+	{
+		return String.format("%s - at line %d of `%s`",
+				error,
+				relocation.getLineNumber(),
+				relocation.getFileName()
+				);
 	}
 
-	private BytesArray assembleBootHeader()
+	/**
+	 * The boot header's symbols are user-defined, thus a missing (or a mistyped) one is a link error
+	 */
+	private BytesArray assembleBootHeader() throws HandledException
 	{
 		final int dataMemoryOffset = BootHeader.getSize();
 		final int codeMemoryOffset = dataMemoryOffset + _objectFile.getDataSegmentSize();
 
-		final BootHeader bootHeader = new BootHeader();
+		final List<String> errors = new LinkedList<String>();
+
+		final int codeStartAddress = getCodeStartAddress(errors);
+		final String programName = getProgramName(errors);
+		final String manufacturerCode = getManufacturerCode(errors);
 
-		final int mainAddress = codeMemoryOffset + getCodeStartAddress();
-		final String programName = getProgramName();
-		final String manufacturerCode = getManufacturerCode();
+		reportErrors(errors);
+
+		final BootHeader bootHeader = new BootHeader();
 
 		return bootHeader.assemble(
-				mainAddress,
+				codeMemoryOffset + codeStartAddress,
 				programName,
 				manufacturerCode
 				);
 	}
 
-	private int getCodeStartAddress()
+	/**
+	 * @return The address of the code-start label, or -1 if it is invalid (and an error has been added)
+	 */
+	private int getCodeStartAddress(
+			final List<String> errors
+			)
 	{
 		final SymbolTable symbolTable = _objectFile.getSymbolTable();
 
@@ -134,7 +505,9 @@ public class Linker
 					"Code start label `%s` not defined",
 					KnownSymbols.CODE_START_LABEL
 					);
-			Utils.abort(error);
+			errors.add(error);
+
+			return -1;
 		}
 
 		final Symbol codeStartSymbol = symbolTable.getSymbol(KnownSymbols.CODE_START_LABEL);
@@ -145,13 +518,20 @@ public class Linker
 					"Symbol %s is reserved as the code-start label and thus must be defined as a label",
 					KnownSymbols.CODE_START_LABEL
 					);
-			Utils.abort(error);
+			errors.add(error);
+
+			return -1;
 		}
 
 		return codeStartSymbol.getAddress();
 	}
 
-	private String getProgramName()
+	/**
+	 * @return The program name, or `null` if it is invalid (and an error has been added)
+	 */
+	private String getProgramName(
+			final List<String> errors
+			)
 	{
 		final SymbolTable symbolTable = _objectFile.getSymbolTable();
 
@@ -161,7 +541,9 @@ public class Linker
 					"Variable `%s` not defined",
 					KnownSymbols.PROGRAM_NAME
 					);
-			Utils.abort(error);
+			errors.add(error);
+
+			return null;
 		}
 
 		final Symbol programName = symbolTable.getSymbol(KnownSymbols.PROGRAM_NAME);
@@ -172,7 +554,9 @@ public class Linker
 					"Symbol `%s` must be defined as string variable",
 					KnownSymbols.PROGRAM_NAME
 					);
-			Utils.abort(error);
+			errors.add(error);
+
+			return null;
 		}
 
 		return _objectFile.getDataSegmentSection(
@@ -181,7 +565,12 @@ public class Linker
 				).toString();
 	}
 
-	private String getManufacturerCode()
+	/**
+	 * @return The manufacturer code, or `null` if it is invalid (and an error has been added)
+	 */
+	private String getManufacturerCode(
+			final List<String> errors
+			)
 	{
 		final SymbolTable symbolTable = _objectFile.getSymbolTable();
 
@@ -191,7 +580,9 @@ public class Linker
 					"Variable `%s` not defined",
 					KnownSymbols.MANUFACTURER_CODE
 					);
-			Utils.abort(error);
+			errors.add(error);
+
+			return null;
 		}
 
 		final Symbol manufacturerCode = symbolTable.getSymbol(KnownSymbols.MANUFACTURER_CODE);
@@ -200,9 +591,11 @@ public class Linker
 		{
 			final String error = String.format(
 					"Symbol `%s` must be defined as string variable",
-					KnownSymbols.PROGRAM_NAME
+					KnownSymbols.MANUFACTURER_CODE
 					);
-			Utils.abort(error);
+			errors.add(error);
+
+			return null;
 		}
 
 		return _objectFile.getDataSegmentSection(
@@ -29,4 +29,15 @@ public class FunctionSymbol extends Symbol
 	{
 		super(address, size);
 	}
+
+	@Override
+	public Symbol relocate(
+			final int offset
+			)
+	{
+		return new FunctionSymbol(
+				getAddress() + offset,
+				getSize()
+				);
+	}
 }
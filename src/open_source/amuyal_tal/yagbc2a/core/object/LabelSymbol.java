@@ -28,4 +28,14 @@ public class LabelSymbol extends Symbol
 	{
 		super(address, 2); //Addresses are represented using 2 bytes
 	}
+
+	@Override
+	public Symbol relocate(
+			final int offset
+			)
+	{
+		return new LabelSymbol(
+				getAddress() + offset
+				);
+	}
 }
@@ -35,6 +35,18 @@ public class NumberVariableSymbol extends VariableSymbol
 		_value = value;
 	}
 
+	@Override
+	public Symbol relocate(
+			final int offset
+			)
+	{
+		return new NumberVariableSymbol(
+				getAddress() + offset,
+				getSize(),
+				_value
+				);
+	}
+
 	public int getValue()
 	{
 		return _value;
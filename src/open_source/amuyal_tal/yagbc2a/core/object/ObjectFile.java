@@ -20,21 +20,39 @@
 
 package open_source.amuyal_tal.yagbc2a.core.object;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import open_source.amuyal_tal.yagbc2a.utils.adt.BytesArray;
-import open_source.amuyal_tal.yagbc2a.utils.adt.MutableBytesArray;
+import open_source.amuyal_tal.yagbc2a.utils.adt.PrimitiveBytesArray;
 import open_source.amuyal_tal.yagbc2a.utils.adt.SubBytesArray;
 
 public final class ObjectFile
 {
+	private final String _name;
 	private final SymbolTable _symbolTable;
-	private final BytesArray _code;
-	private final BytesArray _data;
-
-	public ObjectFile()
+	private final PrimitiveBytesArray _code;
+	private final PrimitiveBytesArray _data;
+	private final List<Relocation> _relocations;
+
+	/**
+	 * @param name The name of the object (e.g. the path of its source file)
+	 */
+	public ObjectFile(
+			final String name
+			)
 	{
+		_name = name;
 		_symbolTable = new SymbolTable();
-		_code = new MutableBytesArray();
-		_data = new MutableBytesArray();
+		_code = new PrimitiveBytesArray();
+		_data = new PrimitiveBytesArray();
+		_relocations = new ArrayList<Relocation>();
+	}
+
+	public String getName()
+	{
+		return _name;
 	}
 
 	public int appendCode(final BytesArray code)
@@ -46,11 +64,31 @@ public final class ObjectFile
 		return address;
 	}
 
+	/**
+	 * Appends zeroed code, to be set in place (see {@link #getCodeSegment()})
+	 *
+	 * @return The address of the reserved code
+	 */
+	public int reserveCode(final int size)
+	{
+		return _code.reserve(size);
+	}
+
+	public void appendData(final BytesArray data)
+	{
+		_data.append(data);
+	}
+
 	public SymbolTable getSymbolTable()
 	{
 		return _symbolTable;
 	}
 
+	public BytesArray getCodeSegment()
+	{
+		return _code;
+	}
+
 	public BytesArray getCodeSegmentSection(
 			final int offset,
 			final int size
@@ -106,4 +144,16 @@ public final class ObjectFile
 	{
 		_code.override(startIndex, data);
 	}
+
+	public void addRelocation(
+			final Relocation relocation
+			)
+	{
+		_relocations.add(relocation);
+	}
+
+	public List<Relocation> getRelocations()
+	{
+		return Collections.unmodifiableList(_relocations);
+	}
 }
@@ -0,0 +1,349 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.core.object;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import open_source.amuyal_tal.yagbc2a.HandledException;
+import open_source.amuyal_tal.yagbc2a.utils.Utils;
+import open_source.amuyal_tal.yagbc2a.utils.adt.PrimitiveBytesArray;
+
+/**
+ * The on-disk format of object files, which allows linking previously assembled objects.
+ *
+ * All of the numbers are big-endian and strings are a length followed by UTF-8 bytes:
+ *  - Header: magic number and format version
+ *  - Object name
+ *  - Data segment: size followed by the bytes
+ *  - Code segment: size followed by the bytes
+ *  - Global symbols: count followed by the symbols (name, kind, address, size and the value of variables)
+ *  - Relocations: count followed by the relocations (location, type, target, target address, symbol name
+ *    for symbolic targets, file name and line number)
+ */
+public final class ObjectFileFormat
+{
+	private ObjectFileFormat()
+	{
+		//Static class
+	}
+
+	public static final String FILE_EXTENSION = ".o";
+
+	private static final int MAGIC_NUMBER = 0x59474F42; //"YGOB"
+	private static final int VERSION = 1;
+
+	private static final byte LABEL_SYMBOL = 0;
+	private static final byte FUNCTION_SYMBOL = 1;
+	private static final byte STRING_VARIABLE_SYMBOL = 2;
+	private static final byte NUMBER_VARIABLE_SYMBOL = 3;
+
+	public static void write(
+			final ObjectFile objectFile,
+			final String filePath
+			) throws HandledException
+	{
+		try(final OutputStream out = Files.newOutputStream(Paths.get(filePath)))
+		{
+			write(objectFile, out);
+		}
+		catch(final HandledException ex)
+		{
+			throw ex;
+		}
+		catch(final Throwable throwable)
+		{
+			Utils.displayError(throwable);
+
+			throw new HandledException();
+		}
+	}
+
+	/**
+	 * Writes an object to a stream. The stream is not closed.
+	 */
+	public static void write(
+			final ObjectFile objectFile,
+			final OutputStream out
+			) throws HandledException
+	{
+		try
+		{
+			final DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(out));
+
+			dataOut.writeInt(MAGIC_NUMBER);
+			dataOut.writeInt(VERSION);
+
+			writeString(dataOut, objectFile.getName());
+
+			dataOut.writeInt(objectFile.getDataSegmentSize());
+			dataOut.write(objectFile.getDataSegmentSection(0, objectFile.getDataSegmentSize()).toByteArray());
+
+			dataOut.writeInt(objectFile.getCodeSegmentSize());
+			dataOut.write(objectFile.getCodeSegmentSection(0, objectFile.getCodeSegmentSize()).toByteArray());
+
+			final Map<String, Symbol> symbols = objectFile.getSymbolTable().getSymbols();
+			dataOut.writeInt(symbols.size());
+			for(final Map.Entry<String, Symbol> entry : symbols.entrySet())
+			{
+				writeSymbol(dataOut, entry.getKey(), entry.getValue());
+			}
+
+			dataOut.writeInt(objectFile.getRelocations().size());
+			for(final Relocation relocation : objectFile.getRelocations())
+			{
+				dataOut.writeInt(relocation.getLocation());
+				dataOut.writeByte(relocation.getType().ordinal());
+				dataOut.writeByte(relocation.getTarget().ordinal());
+				dataOut.writeInt(relocation.getTargetAddress());
+				if(relocation.getTarget() == Relocation.Target.SYMBOL)
+				{
+					writeString(dataOut, relocation.getSymbolName());
+				}
+				writeString(dataOut, relocation.getFileName());
+				dataOut.writeInt(relocation.getLineNumber());
+			}
+
+			dataOut.flush();
+		}
+		catch(final Throwable throwable)
+		{
+			Utils.displayError(throwable);
+
+			throw new HandledException();
+		}
+	}
+
+	/**
+	 * Reads an object file through a memory mapping of the file
+	 */
+	public static ObjectFile read(
+			final String filePath
+			) throws HandledException
+	{
+		try(final FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ))
+		{
+			return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+		catch(final Throwable throwable)
+		{
+			Utils.displayError(throwable);
+
+			throw new HandledException();
+		}
+	}
+
+	/**
+	 * Reads an object from a buffer (e.g. a mapped file), starting at the buffer's position
+	 *
+	 * @throws IOException If the buffer doesn't hold an object of the supported format
+	 */
+	public static ObjectFile read(
+			final ByteBuffer buffer
+			) throws IOException
+	{
+		if(buffer.remaining() < 8 || buffer.getInt() != MAGIC_NUMBER)
+		{
+			throw new IOException("Not an object file");
+		}
+
+		final int version = buffer.getInt();
+		if(version != VERSION)
+		{
+			throw new IOException(String.format("Unsupported object-file version %d", version));
+		}
+
+		final ObjectFile objectFile = new ObjectFile(readString(buffer));
+
+		objectFile.appendData(new PrimitiveBytesArray(readBytes(buffer)));
+		objectFile.appendCode(new PrimitiveBytesArray(readBytes(buffer)));
+
+		final SymbolTable symbolTable = objectFile.getSymbolTable();
+		final int symbolsCount = buffer.getInt();
+		for(int i = 0; i < symbolsCount; i++)
+		{
+			final String name = readString(buffer);
+
+			symbolTable.insert(
+					name,
+					readSymbol(buffer)
+					);
+		}
+
+		final Relocation.Type[] types = Relocation.Type.values();
+		final Relocation.Target[] targets = Relocation.Target.values();
+
+		final int relocationsCount = buffer.getInt();
+		for(int i = 0; i < relocationsCount; i++)
+		{
+			final int location = buffer.getInt();
+			final Relocation.Type type = types[buffer.get()];
+			final Relocation.Target target = targets[buffer.get()];
+			final int targetAddress = buffer.getInt();
+
+			if(target == Relocation.Target.SYMBOL)
+			{
+				final String symbolName = readString(buffer);
+
+				objectFile.addRelocation(
+						new Relocation(
+								location,
+								type,
+								symbolName,
+								readString(buffer),
+								buffer.getInt()
+								)
+						);
+			}
+			else
+			{
+				objectFile.addRelocation(
+						new Relocation(
+								location,
+								type,
+								target,
+								targetAddress,
+								readString(buffer),
+								buffer.getInt()
+								)
+						);
+			}
+		}
+
+		return objectFile;
+	}
+
+	private static void writeSymbol(
+			final DataOutputStream dataOut,
+			final String name,
+			final Symbol symbol
+			) throws IOException
+	{
+		writeString(dataOut, name);
+
+		if(symbol instanceof LabelSymbol)
+		{
+			dataOut.writeByte(LABEL_SYMBOL);
+		}
+		else if(symbol instanceof FunctionSymbol)
+		{
+			dataOut.writeByte(FUNCTION_SYMBOL);
+		}
+		else if(symbol instanceof StringVariableSymbol)
+		{
+			dataOut.writeByte(STRING_VARIABLE_SYMBOL);
+		}
+		else if(symbol instanceof NumberVariableSymbol)
+		{
+			dataOut.writeByte(NUMBER_VARIABLE_SYMBOL);
+		}
+		else
+		{
+			Utils.abort("Unreasonable condition achived");
+		}
+
+		dataOut.writeInt(symbol.getAddress());
+		dataOut.writeInt(symbol.getSize());
+
+		if(symbol instanceof StringVariableSymbol)
+		{
+			writeString(dataOut, symbol.toString());
+		}
+		else if(symbol instanceof NumberVariableSymbol)
+		{
+			dataOut.writeInt(((NumberVariableSymbol)symbol).getValue());
+		}
+	}
+
+	private static Symbol readSymbol(
+			final ByteBuffer buffer
+			) throws IOException
+	{
+		final byte kind = buffer.get();
+		final int address = buffer.getInt();
+		final int size = buffer.getInt();
+
+		switch(kind)
+		{
+			case LABEL_SYMBOL:
+			{
+				return new LabelSymbol(address);
+			}
+
+			case FUNCTION_SYMBOL:
+			{
+				return new FunctionSymbol(address, size);
+			}
+
+			case STRING_VARIABLE_SYMBOL:
+			{
+				return new StringVariableSymbol(address, size, readString(buffer));
+			}
+
+			case NUMBER_VARIABLE_SYMBOL:
+			{
+				return new NumberVariableSymbol(address, size, buffer.getInt());
+			}
+
+			default:
+			{
+				throw new IOException(String.format("Unknown symbol kind %d", kind));
+			}
+		}
+	}
+
+	private static void writeString(
+			final DataOutputStream dataOut,
+			final String string
+			) throws IOException
+	{
+		final byte[] bytes = (string == null) ? new byte[0] : string.getBytes(StandardCharsets.UTF_8);
+
+		dataOut.writeInt(bytes.length);
+		dataOut.write(bytes);
+	}
+
+	private static String readString(
+			final ByteBuffer buffer
+			)
+	{
+		return new String(readBytes(buffer), StandardCharsets.UTF_8);
+	}
+
+	private static byte[] readBytes(
+			final ByteBuffer buffer
+			)
+	{
+		final byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+
+		return bytes;
+	}
+}
@@ -0,0 +1,134 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.core.object;
+
+/**
+ * A location in the code segment whose value depends on where the objects' segments are placed in the image.
+ *
+ * The assembler leaves a placeholder at the location, and the linker writes the value once all of the
+ * segments are placed.
+ */
+public final class Relocation
+{
+	public enum Type
+	{
+		ABSOLUTE_ADDRESS, //2 bytes, little endian
+		RELATIVE_JUMP, //1 signed byte, relative to the address that follows the location
+		HIGH_ADDRESS //1 byte, relative to 0xFF00
+	}
+
+	public enum Target
+	{
+		DATA_SEGMENT, //An offset in the object's data segment
+		CODE_SEGMENT, //An offset in the object's code segment
+		ABSOLUTE, //An explicit address, which is independent of the placement
+		SYMBOL //A global symbol, that may be defined by another object
+	}
+
+	private final int _location;
+	private final Type _type;
+	private final Target _target;
+	private final int _targetAddress;
+	private final String _symbolName;
+	private final String _fileName;
+	private final int _lineNumber;
+
+	/**
+	 * @param location The offset of the value in the code segment
+	 * @param type The encoding of the value
+	 * @param target The kind of the referenced address
+	 * @param targetAddress The referenced address (an offset in a segment, or an absolute address)
+	 * @param fileName The name of the source file that holds the reference (for error reporting)
+	 * @param lineNumber The number of the source line that holds the reference (for error reporting)
+	 */
+	public Relocation(
+			final int location,
+			final Type type,
+			final Target target,
+			final int targetAddress,
+			final String fileName,
+			final int lineNumber
+			)
+	{
+		_location = location;
+		_type = type;
+		_target = target;
+		_targetAddress = targetAddress;
+		_symbolName = null;
+		_fileName = fileName;
+		_lineNumber = lineNumber;
+	}
+
+	/**
+	 * For a reference to a global symbol, which is resolved by the linker
+	 */
+	public Relocation(
+			final int location,
+			final Type type,
+			final String symbolName,
+			final String fileName,
+			final int lineNumber
+			)
+	{
+		_location = location;
+		_type = type;
+		_target = Target.SYMBOL;
+		_targetAddress = 0; //Unknown until linkage
+		_symbolName = symbolName;
+		_fileName = fileName;
+		_lineNumber = lineNumber;
+	}
+
+	public int getLocation()
+	{
+		return _location;
+	}
+
+	public Type getType()
+	{
+		return _type;
+	}
+
+	public Target getTarget()
+	{
+		return _target;
+	}
+
+	public int getTargetAddress()
+	{
+		return _targetAddress;
+	}
+
+	public String getSymbolName()
+	{
+		return _symbolName;
+	}
+
+	public String getFileName()
+	{
+		return _fileName;
+	}
+
+	public int getLineNumber()
+	{
+		return _lineNumber;
+	}
+}
@@ -35,6 +35,18 @@ public class StringVariableSymbol extends VariableSymbol
 		_value = value;
 	}
 
+	@Override
+	public Symbol relocate(
+			final int offset
+			)
+	{
+		return new StringVariableSymbol(
+				getAddress() + offset,
+				getSize(),
+				_value
+				);
+	}
+
 	@Override
 	public String toString()
 	{
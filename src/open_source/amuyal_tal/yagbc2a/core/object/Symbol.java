@@ -43,4 +43,12 @@ public abstract class Symbol
 	{
 		return _size;
 	}
+
+	/**
+	 * @return A copy of the symbol, whose address is moved by the given offset (e.g. once its segment is
+	 *  placed after other segments)
+	 */
+	public abstract Symbol relocate(
+			final int offset
+			);
 }
@@ -0,0 +1,218 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.core.object;
+
+import java.util.Arrays;
+
+/**
+ * Interns the names of symbols as dense integer ids, so symbol tables look names up by id (without hashing
+ * nor comparing strings). Names are looked up by open addressing (linear probing).
+ *
+ * The ids of names are shared by a global symbol table and its function-local symbol tables.
+ */
+public final class SymbolNames
+{
+	public static final int NO_ID = -1;
+
+	private static final int INITIAL_CAPACITY = 64; //Must be a power of 2
+
+	private int[] _slots; //An id + 1 per slot, 0 for an empty slot
+	private String[] _names; //By id
+	private int[] _hashes; //By id
+	private int _count;
+
+	public SymbolNames()
+	{
+		_slots = new int[INITIAL_CAPACITY];
+		_names = new String[INITIAL_CAPACITY / 2];
+		_hashes = new int[INITIAL_CAPACITY / 2];
+		_count = 0;
+	}
+
+	/**
+	 * @return The id of the name, a new one if the name wasn't interned before
+	 */
+	public int intern(
+			final String name
+			)
+	{
+		return intern(name, 0, name.length());
+	}
+
+	/**
+	 * Same as {@link #intern(String)}, for a name that is a part of a text (e.g. a token of a line). No string
+	 * is allocated, unless the name is new.
+	 */
+	public int intern(
+			final CharSequence text,
+			final int begin,
+			final int end
+			)
+	{
+		final int hash = hash(text, begin, end);
+		final int slot = findSlot(text, begin, end, hash);
+
+		if(_slots[slot] != 0)
+		{
+			return _slots[slot] - 1;
+		}
+
+		if(_count == _names.length)
+		{
+			_names = Arrays.copyOf(_names, _count * 2);
+			_hashes = Arrays.copyOf(_hashes, _count * 2);
+		}
+
+		final int id = _count;
+		_names[id] = text.subSequence(begin, end).toString();
+		_hashes[id] = hash;
+		_count++;
+
+		if(_count * 2 > _slots.length) //Keeps at least half of the slots empty, for short probing
+		{
+			rehash();
+		}
+		else
+		{
+			_slots[slot] = id + 1;
+		}
+
+		return id;
+	}
+
+	/**
+	 * @return The id of the name, or {@link #NO_ID} if the name wasn't interned
+	 */
+	public int find(
+			final String name
+			)
+	{
+		final int slot = findSlot(name, 0, name.length(), hash(name, 0, name.length()));
+
+		return _slots[slot] - 1;
+	}
+
+	public String getName(
+			final int id
+			)
+	{
+		return _names[id];
+	}
+
+	/**
+	 * @return The amount of interned names (ids are in the range [0, count))
+	 */
+	public int getCount()
+	{
+		return _count;
+	}
+
+	/**
+	 * @return The slot of the name, or the empty slot it should be placed in
+	 */
+	private int findSlot(
+			final CharSequence text,
+			final int begin,
+			final int end,
+			final int hash
+			)
+	{
+		final int mask = _slots.length - 1;
+
+		for(int slot = spread(hash) & mask; ; slot = (slot + 1) & mask)
+		{
+			final int id = _slots[slot] - 1;
+
+			if(id == NO_ID || (_hashes[id] == hash && nameEquals(_names[id], text, begin, end)))
+			{
+				return slot;
+			}
+		}
+	}
+
+	private void rehash()
+	{
+		_slots = new int[_slots.length * 2];
+		final int mask = _slots.length - 1;
+
+		for(int id = 0; id < _count; id++)
+		{
+			int slot = spread(_hashes[id]) & mask;
+			while(_slots[slot] != 0)
+			{
+				slot = (slot + 1) & mask;
+			}
+
+			_slots[slot] = id + 1;
+		}
+	}
+
+	/**
+	 * @return The same hash as {@link String#hashCode()} of the name
+	 */
+	private static int hash(
+			final CharSequence text,
+			final int begin,
+			final int end
+			)
+	{
+		int hash = 0;
+		for(int i = begin; i < end; i++)
+		{
+			hash = 31 * hash + text.charAt(i);
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Mixes the high bits into the low bits, which select the slot
+	 */
+	private static int spread(
+			final int hash
+			)
+	{
+		return hash ^ (hash >>> 16);
+	}
+
+	private static boolean nameEquals(
+			final String name,
+			final CharSequence text,
+			final int begin,
+			final int end
+			)
+	{
+		if(name.length() != end - begin)
+		{
+			return false;
+		}
+
+		for(int i = 0; i < name.length(); i++)
+		{
+			if(name.charAt(i) != text.charAt(begin + i))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
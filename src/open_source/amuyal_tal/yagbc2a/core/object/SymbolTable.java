@@ -20,18 +20,65 @@
 
 package open_source.amuyal_tal.yagbc2a.core.object;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import open_source.amuyal_tal.yagbc2a.utils.Utils;
+import open_source.amuyal_tal.yagbc2a.utils.adt.IntMap;
 
+/**
+ * Symbols by the ids of their names (see {@link SymbolNames}), thus a lookup by id neither hashes nor compares
+ * strings.
+ *
+ * A function-local symbol table chains to its owning (global) symbol table, with which it shares the ids of
+ * names.
+ */
 public final class SymbolTable
 {
-	private final Map<String, Symbol> _symbols;
+	private final SymbolNames _names;
+	private final SymbolTable _parent; //`null` for a global symbol table
+	private final IntMap<Symbol> _symbols; //By ids, in the order of their insertion
 
+	/**
+	 * Creates a global symbol table
+	 */
 	public SymbolTable()
 	{
-		_symbols = new HashMap<String, Symbol>();
+		this(new SymbolNames(), null);
+	}
+
+	/**
+	 * Creates a symbol table whose symbols hide the ones of its parent (e.g. a function-local symbol table)
+	 */
+	public SymbolTable(
+			final SymbolTable parent
+			)
+	{
+		this(parent._names, parent);
+	}
+
+	private SymbolTable(
+			final SymbolNames names,
+			final SymbolTable parent
+			)
+	{
+		_names = names;
+		_parent = parent;
+		_symbols = new IntMap<Symbol>();
+	}
+
+	public SymbolNames getNames()
+	{
+		return _names;
+	}
+
+	/**
+	 * @return The symbol table that this one chains to, or `null` for a global symbol table
+	 */
+	public SymbolTable getParent()
+	{
+		return _parent;
 	}
 
 	public void insert(
@@ -39,17 +86,28 @@ public final class SymbolTable
 			final Symbol symbol
 			)
 	{
-		_symbols.put(
-				name,
+		insert(
+				_names.intern(name),
 				symbol
 				);
 	}
 
+	/**
+	 * Inserts a symbol, replacing the symbol of the same name (if any)
+	 */
+	public void insert(
+			final int id,
+			final Symbol symbol
+			)
+	{
+		_symbols.put(id, symbol);
+	}
+
 	public Symbol getSymbol(
 			final String name
 			)
 	{
-		final Symbol symbol = _symbols.get(name);
+		final Symbol symbol = findSymbol(name);
 		if(symbol == null)
 		{
 			Utils.abort("!! INTERNAL ERROR !! symbol not found");
@@ -62,6 +120,62 @@ public final class SymbolTable
 			final String symbolName
 			)
 	{
-		return _symbols.containsKey(symbolName);
+		return findSymbol(symbolName) != null;
+	}
+
+	/**
+	 * @return The symbol, or `null` if it is not defined in this symbol table
+	 */
+	public Symbol findSymbol(
+			final String name
+			)
+	{
+		final int id = _names.find(name);
+
+		return (id == SymbolNames.NO_ID) ? null : _symbols.get(id);
+	}
+
+	/**
+	 * @return The symbol, or `null` if it is not defined in this symbol table
+	 */
+	public Symbol findSymbol(
+			final int id
+			)
+	{
+		return _symbols.get(id);
+	}
+
+	/**
+	 * @return The symbol, as defined in this symbol table or in the ones it chains to, or `null` if it is not
+	 *  defined in any of them
+	 */
+	public Symbol lookupSymbol(
+			final int id
+			)
+	{
+		for(SymbolTable symbolTable = this; symbolTable != null; symbolTable = symbolTable._parent)
+		{
+			final Symbol symbol = symbolTable._symbols.get(id);
+			if(symbol != null)
+			{
+				return symbol;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return A read-only copy of the symbols, by their names, in the order of their insertion
+	 */
+	public Map<String, Symbol> getSymbols()
+	{
+		final Map<String, Symbol> symbols = new LinkedHashMap<String, Symbol>();
+		for(int i = 0; i < _symbols.getEntriesCount(); i++)
+		{
+			symbols.put(_names.getName(_symbols.getKeyAt(i)), _symbols.getValueAt(i));
+		}
+
+		return Collections.unmodifiableMap(symbols);
 	}
 }
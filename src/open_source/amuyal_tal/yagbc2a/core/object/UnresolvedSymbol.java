@@ -25,15 +25,41 @@ import open_source.amuyal_tal.yagbc2a.parsing.SourceLine;
 
 public final class UnresolvedSymbol
 {
+	private static final int NO_EXPLICIT_ADDRESS = -1;
+
 	private final String _symbolName;
 	private final int _startIndex;
 	private final int _size;
 	private final SourceLine _sourceLine;
 	private final InstructionTemplate _instruction;
 	private final int _operandIndex;
+	private final int _explicitAddress;
+
+	public UnresolvedSymbol(
+			final String symbolName,
+			final int startIndex,
+			final int size,
+			final SourceLine sourceLine,
+			final InstructionTemplate instruction,
+			final int operandIndex
+			)
+	{
+		_symbolName = symbolName;
+		_startIndex = startIndex;
+		_size = size;
+		_sourceLine = sourceLine;
+		_instruction = instruction;
+		_operandIndex = operandIndex;
+		_explicitAddress = NO_EXPLICIT_ADDRESS;
+	}
 
+	/**
+	 * For a usage of an explicit (absolute) address whose encoding depends on the final layout (e.g. a
+	 * relative jump)
+	 */
 	public UnresolvedSymbol(
 			final String symbolName,
+			final int explicitAddress,
 			final int startIndex,
 			final int size,
 			final SourceLine sourceLine,
@@ -47,6 +73,7 @@ public final class UnresolvedSymbol
 		_sourceLine = sourceLine;
 		_instruction = instruction;
 		_operandIndex = operandIndex;
+		_explicitAddress = explicitAddress;
 	}
 
 	public String getSymbolName()
@@ -78,4 +105,14 @@ public final class UnresolvedSymbol
 	{
 		return _operandIndex;
 	}
+
+	public boolean hasExplicitAddress()
+	{
+		return _explicitAddress != NO_EXPLICIT_ADDRESS;
+	}
+
+	public int getExplicitAddress()
+	{
+		return _explicitAddress;
+	}
 }
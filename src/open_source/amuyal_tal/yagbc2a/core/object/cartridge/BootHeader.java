@@ -31,7 +31,7 @@ import open_source.amuyal_tal.yagbc2a.parsing.CommandTokens;
 import open_source.amuyal_tal.yagbc2a.parsing.SyntaxException;
 import open_source.amuyal_tal.yagbc2a.utils.Utils;
 import open_source.amuyal_tal.yagbc2a.utils.adt.BytesArray;
-import open_source.amuyal_tal.yagbc2a.utils.adt.MutableBytesArray;
+import open_source.amuyal_tal.yagbc2a.utils.adt.PrimitiveBytesArray;
 
 public final class BootHeader
 {
@@ -189,7 +189,7 @@ public final class BootHeader
 		setProgramName(programName);
 		setManufacturerCode(manufacturerCode);
 
-		final BytesArray assembled = new MutableBytesArray();
+		final BytesArray assembled = new PrimitiveBytesArray(getSize());
 
 		for(final MemorySection memorySection : _memorySections)
 		{
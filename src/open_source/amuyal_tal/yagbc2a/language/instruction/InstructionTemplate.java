@@ -26,7 +26,7 @@ import open_source.amuyal_tal.yagbc2a.language.operand.Operand;
 import open_source.amuyal_tal.yagbc2a.parsing.CommandTokens;
 import open_source.amuyal_tal.yagbc2a.utils.Utils;
 import open_source.amuyal_tal.yagbc2a.utils.adt.BytesArray;
-import open_source.amuyal_tal.yagbc2a.utils.adt.MutableBytesArray;
+import open_source.amuyal_tal.yagbc2a.utils.adt.PrimitiveBytesArray;
 
 public final class InstructionTemplate
 {
@@ -401,9 +401,18 @@ public final class InstructionTemplate
 			return false; //Doesn't match
 		}
 
+		return matchesArguments(tokens);
+	}
+
+	/**
+	 * Same as {@link #matches(CommandTokens)}, without verifying the command and the arguments count
+	 * (for callers that already selected the template by both)
+	 */
+	public boolean matchesArguments(final CommandTokens tokens)
+	{
 		for(int i = 0; i < _parameters.length; i++)
 		{
-			if(_parameters[i].matches(tokens.getArgument(i)) == false)
+			if(tokens.getClassifiedArgument(i).isMatchedBy(_parameters[i]) == false)
 			{
 				return false;
 			}
@@ -420,28 +429,44 @@ public final class InstructionTemplate
 
 	public BytesArray assemble(final CommandTokens tokens)
 	{
-		final BytesArray code = new MutableBytesArray();
+		final PrimitiveBytesArray code = new PrimitiveBytesArray(_size);
+
+		encode(tokens, code, code.reserve(_size));
+
+		return code;
+	}
+
+	/**
+	 * Writes the instruction's code ({@link #getSize()} bytes) into a sink, without allocating
+	 *
+	 * @param tokens The instruction's tokens, which the template matches
+	 * @param offset The index in the sink of the instruction's first byte
+	 */
+	public void encode(
+			final CommandTokens tokens,
+			final BytesArray sink,
+			final int offset
+			)
+	{
+		int index = offset;
 
 		if(_code <= 0xFF)
 		{
-			code.append((byte)_code);
+			sink.setAt(index++, (byte)_code);
 		}
 		else //(0xFF <= _code <= 0xFFFF)
 		{
-			code.append((byte)(_code >> 8));
-			code.append((byte)(_code & 0xFF));
+			sink.setAt(index++, (byte)(_code >> 8));
+			sink.setAt(index++, (byte)(_code & 0xFF));
 		}
 
 		for(int i = 0; i < _parameters.length; i++)
 		{
-			final BytesArray parameterCode = _parameters[i].assemble(tokens.getArgument(i));
-			if(parameterCode != null)
-			{
-				code.append(parameterCode);
-			}
+			_parameters[i].encode(tokens.getClassifiedArgument(i), sink, index);
+			index += _parameters[i].getCodeSize();
 		}
 
-		return code;
+		Utils.assertCondition(index == offset + _size);
 	}
 
 //TODO: Implement (disassemble)
@@ -20,6 +20,7 @@
 
 package open_source.amuyal_tal.yagbc2a.language.operand;
 
+import open_source.amuyal_tal.yagbc2a.parsing.OperandToken;
 import open_source.amuyal_tal.yagbc2a.utils.Utils;
 import open_source.amuyal_tal.yagbc2a.utils.adt.BytesArray;
 
@@ -37,23 +38,9 @@ public final class ConstantNumberOperand extends Operand
 	}
 
 	@Override
-	public boolean matches(final String string)
+	public boolean matches(final OperandToken token)
 	{
-		boolean match = false;
-
-		if(string.length() > 0)
-		{
-			try
-			{
-				match = (Utils.parseValue(string) == _integerValue);
-			}
-			catch(final NumberFormatException ex)
-			{
-				//`match` already set
-			}
-		}
-
-		return match;
+		return (token.getKind() == OperandToken.Kind.NUMBER) && (token.getValue() == _integerValue);
 	}
 
 	public int getValue()
@@ -68,8 +55,12 @@ public final class ConstantNumberOperand extends Operand
 	}
 
 	@Override
-	public BytesArray assemble(final String string)
+	public void encode(
+			final OperandToken token,
+			final BytesArray sink,
+			final int offset
+			)
 	{
-		return null;
+		//No code
 	}
 }
@@ -20,9 +20,8 @@
 
 package open_source.amuyal_tal.yagbc2a.language.operand;
 
-import open_source.amuyal_tal.yagbc2a.utils.Utils;
+import open_source.amuyal_tal.yagbc2a.parsing.OperandToken;
 import open_source.amuyal_tal.yagbc2a.utils.adt.BytesArray;
-import open_source.amuyal_tal.yagbc2a.utils.adt.MutableBytesArray;
 
 public final class ImmediateNumberOperand extends Operand
 {
@@ -97,21 +96,9 @@ public final class ImmediateNumberOperand extends Operand
 	}
 
 	@Override
-	public boolean matches(final String string)
+	public boolean matches(final OperandToken token)
 	{
-		boolean result;
-
-		try
-		{
-			final int value = Utils.parseValue(string);
-			result = isInValidRange(value);
-		}
-		catch(final NumberFormatException ex)
-		{
-			result = false;
-		}
-
-		return result;
+		return (token.getKind() == OperandToken.Kind.NUMBER) && isInValidRange(token.getValue());
 	}
 
 	@Override
@@ -121,24 +108,24 @@ public final class ImmediateNumberOperand extends Operand
 	}
 
 	@Override
-	public BytesArray assemble(final String string)
+	public void encode(
+			final OperandToken token,
+			final BytesArray sink,
+			final int offset
+			)
 	{
-		final BytesArray code = new MutableBytesArray();
-
-		final int value = Utils.parseValue(string);
+		final int value = token.getValue();
 
 		//TODO: Verify (and probably fix) for negative numbers
 		if(isEightBit())
 		{
-			code.append((byte)value);
+			sink.setAt(offset, (byte)value);
 		}
 		else
 		{
 			//Set in a little-endian layout
-			code.append((byte)(value & 0xFF));
-			code.append((byte)(value >> 8));
+			sink.setAt(offset, (byte)(value & 0xFF));
+			sink.setAt(offset + 1, (byte)(value >> 8));
 		}
-
-		return code;
 	}
 }
@@ -20,15 +20,49 @@
 
 package open_source.amuyal_tal.yagbc2a.language.operand;
 
+import open_source.amuyal_tal.yagbc2a.parsing.OperandToken;
+import open_source.amuyal_tal.yagbc2a.utils.Utils;
 import open_source.amuyal_tal.yagbc2a.utils.adt.BytesArray;
 
 public abstract class Operand
 {
+	private static final int NO_ID = -1;
+
+	/**
+	 * IDs are dense, so a set of operands fits in a bitmask (see {@link #getMask()})
+	 */
+	public static final int MAX_IDS_COUNT = Long.SIZE;
+
 	private final String _name;
+	private int _id; //Assigned by the operands database
 
 	public Operand(final String name)
 	{
 		_name = name;
+		_id = NO_ID;
+	}
+
+	public void assignId(final int id)
+	{
+		Utils.assertCondition(_id == NO_ID);
+		Utils.assertCondition(0 <= id && id < MAX_IDS_COUNT);
+
+		_id = id;
+	}
+
+	public int getId()
+	{
+		Utils.assertCondition(_id != NO_ID);
+
+		return _id;
+	}
+
+	/**
+	 * @return The operand's bit in a set of operands
+	 */
+	public long getMask()
+	{
+		return 1L << getId();
 	}
 
 	public abstract int getCodeSize();
@@ -46,9 +80,22 @@ public abstract class Operand
 		return _name.equals(other._name);
 	}
 
-	public abstract boolean matches(final String string);
+	/**
+	 * @param token A classified argument (see {@link OperandToken#classify(String)})
+	 */
+	public abstract boolean matches(final OperandToken token);
 
-	public abstract BytesArray assemble(final String string);
+	/**
+	 * Writes the operand's code ({@link #getCodeSize()} bytes) into a sink
+	 *
+	 * @param token A classified argument, which the operand matches
+	 * @param offset The index in the sink of the operand's first byte
+	 */
+	public abstract void encode(
+			final OperandToken token,
+			final BytesArray sink,
+			final int offset
+			);
 
 //TODO: Implement (disassemble)
 /*
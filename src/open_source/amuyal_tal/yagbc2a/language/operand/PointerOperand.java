@@ -20,6 +20,7 @@
 
 package open_source.amuyal_tal.yagbc2a.language.operand;
 
+import open_source.amuyal_tal.yagbc2a.parsing.OperandToken;
 import open_source.amuyal_tal.yagbc2a.utils.adt.BytesArray;
 
 
@@ -41,12 +42,9 @@ public class PointerOperand extends Operand implements PointerType
 	}
 
 	@Override
-	public boolean matches(final String string)
+	public boolean matches(final OperandToken token)
 	{
-		return (string.length() > 2) &&
-				(string.charAt(0) == '(') &&
-				(string.charAt(string.length() -1) == ')') &&
-				_pointingParameter.matches(getPointingPart(string));
+		return (token.getKind() == OperandToken.Kind.POINTER) && _pointingParameter.matches(token.getPointedToken());
 	}
 
 	@Override
@@ -56,13 +54,12 @@ public class PointerOperand extends Operand implements PointerType
 	}
 
 	@Override
-	public BytesArray assemble(final String string)
+	public void encode(
+			final OperandToken token,
+			final BytesArray sink,
+			final int offset
+			)
 	{
-		return _pointingParameter.assemble(getPointingPart(string));
-	}
-
-	private static String getPointingPart(final String string)
-	{
-		return string.substring(1, string.length() - 1);
+		_pointingParameter.encode(token.getPointedToken(), sink, offset);
 	}
 }
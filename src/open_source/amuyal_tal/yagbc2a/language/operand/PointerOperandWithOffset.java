@@ -20,9 +20,9 @@
 
 package open_source.amuyal_tal.yagbc2a.language.operand;
 
+import open_source.amuyal_tal.yagbc2a.parsing.OperandToken;
 import open_source.amuyal_tal.yagbc2a.utils.Utils;
 import open_source.amuyal_tal.yagbc2a.utils.adt.BytesArray;
-import open_source.amuyal_tal.yagbc2a.utils.adt.MutableBytesArray;
 
 public class PointerOperandWithOffset extends Operand implements PointerType
 {
@@ -42,26 +42,12 @@ public class PointerOperandWithOffset extends Operand implements PointerType
 	}
 
 	@Override
-	public boolean matches(final String string)
+	public boolean matches(final OperandToken token)
 	{
-		final String[] parts = string.split("\\+");
-
-		boolean result;
-
-		if(parts.length != 2)
-		{
-			result = false;
-		}
-		else if(parts[0].equalsIgnoreCase(_pointingParameter.getName()) == false)
-		{
-			result = false;
-		}
-		else
-		{
-			result = Utils.isSignedByte(parts[1]);
-		}
-
-		return result;
+		return (token.getKind() == OperandToken.Kind.OFFSET) &&
+				(token.getNamedOperand() == _pointingParameter) &&
+				(-128 <= token.getValue()) &&
+				(token.getValue() <= 127);
 	}
 
 	@Override
@@ -71,27 +57,14 @@ public class PointerOperandWithOffset extends Operand implements PointerType
 	}
 
 	@Override
-	public BytesArray assemble(final String string)
+	public void encode(
+			final OperandToken token,
+			final BytesArray sink,
+			final int offset
+			)
 	{
-		final BytesArray code = new MutableBytesArray();
-		final String[] parts = string.split("\\+");
-
-		final BytesArray pointingParameterCode = _pointingParameter.assemble(parts[0]);
-		if(pointingParameterCode != null)
-		{
-			code.append(pointingParameterCode);
-		}
-
-		try
-		{
-			final int value = Integer.parseInt(parts[1]);
-			code.append((byte)value);
-		}
-		catch(final NumberFormatException ex)
-		{
-			Utils.abort(ex);
-		}
+		Utils.assertCondition(_pointingParameter.getCodeSize() == 0); //The pointing parameter is a register
 
-		return code;
+		sink.setAt(offset, (byte)token.getValue()); //The offset's range is verified by `matches`
 	}
 }
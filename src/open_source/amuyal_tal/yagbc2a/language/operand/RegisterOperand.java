@@ -20,6 +20,7 @@
 
 package open_source.amuyal_tal.yagbc2a.language.operand;
 
+import open_source.amuyal_tal.yagbc2a.parsing.OperandToken;
 import open_source.amuyal_tal.yagbc2a.utils.adt.BytesArray;
 
 public class RegisterOperand extends Operand
@@ -68,9 +69,9 @@ public class RegisterOperand extends Operand
 	}
 
 	@Override
-	public boolean matches(final String string)
+	public boolean matches(final OperandToken token)
 	{
-		return (getName().equalsIgnoreCase(string));
+		return (token.getNamedOperand() == this) && (token.getKind() != OperandToken.Kind.OFFSET);
 	}
 
 	@Override
@@ -80,8 +81,12 @@ public class RegisterOperand extends Operand
 	}
 
 	@Override
-	public BytesArray assemble(final String string)
+	public void encode(
+			final OperandToken token,
+			final BytesArray sink,
+			final int offset
+			)
 	{
-		return null;
+		//No code
 	}
 }
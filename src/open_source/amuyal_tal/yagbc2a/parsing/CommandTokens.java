@@ -22,24 +22,58 @@ package open_source.amuyal_tal.yagbc2a.parsing;
 
 public final class CommandTokens
 {
+	private static final String[] NO_ARGUMENTS = new String[0];
+
 	private final String _command;
 	private final String[] _args;
+	private String[] _substitutedSymbols; //The names of the symbols whose values replaced the arguments (allocated on demand)
+	private OperandToken[] _classifiedArgs; //Classified on demand, once per argument (allocated on demand)
 
 	public CommandTokens(final String text) throws SyntaxException
 	{
-		if(text.contains(",,") || text.endsWith(","))
+		this(Lexer.tokenize(text), 0);
+	}
+
+	/**
+	 * @param tokens A tokenized line
+	 * @param firstTokenIndex The index of the command's token (i.e. after the line's labels)
+	 */
+	public CommandTokens(
+			final TokenStream tokens,
+			final int firstTokenIndex
+			) throws SyntaxException
+	{
+		final int tokensCount = tokens.getTokensCount();
+
+		for(int i = firstTokenIndex + 1; i < tokensCount; i++)
 		{
-			throw new SyntaxException(Syntax.Error.MISSING_PARAMETER_VALUE);
+			if(tokens.getLength(i) == 0)
+			{
+				throw new SyntaxException(Syntax.Error.MISSING_PARAMETER_VALUE);
+			}
 		}
 
-		final String[] tokens = text.split(" ");
-		if(tokens.length != 1 && tokens.length != 2)
+		if(tokens.getWordsCount() > 2)
 		{
 			throw new SyntaxException(Syntax.Error.TOO_MANY_SYMBOLS);
 		}
 
-		_command = tokens[0];
-		_args = (tokens.length == 1) ? null : tokens[1].split(",");
+		_command = (firstTokenIndex < tokensCount) ? tokens.getToken(firstTokenIndex) : "";
+		_substitutedSymbols = null;
+		_classifiedArgs = null;
+
+		if(firstTokenIndex + 1 >= tokensCount)
+		{
+			_args = NO_ARGUMENTS;
+		}
+		else
+		{
+			_args = new String[tokensCount - firstTokenIndex - 1];
+			for(int i = 0; i < _args.length; i++)
+			{
+				_args[i] = tokens.getToken(firstTokenIndex + 1 + i);
+			}
+		}
 	}
 
 	public String getCommand()
@@ -49,7 +83,7 @@ public final class CommandTokens
 
 	public int getArgumentsCount()
 	{
-		return (_args == null) ? 0 : _args.length;
+		return _args.length;
 	}
 
 	public String getArgument(final int id)
@@ -57,38 +91,74 @@ public final class CommandTokens
 		return _args[id];
 	}
 
+	/**
+	 * @return The argument, classified (the classification is kept until the argument is replaced)
+	 */
+	public OperandToken getClassifiedArgument(final int id)
+	{
+		if(_classifiedArgs == null)
+		{
+			_classifiedArgs = new OperandToken[_args.length];
+		}
+
+		if(_classifiedArgs[id] == null)
+		{
+			_classifiedArgs[id] = OperandToken.classify(_args[id]);
+		}
+
+		return _classifiedArgs[id];
+	}
+
 	public void replaceArgument(
 			final int index,
 			final String newValue
 			)
 	{
 		_args[index] = newValue;
+
+		if(_classifiedArgs != null)
+		{
+			_classifiedArgs[index] = null;
+		}
 	}
 
-	@Override
-	public String toString()
+	/**
+	 * Replaces an argument with the value of a symbol, while keeping the symbol's name
+	 */
+	public void substituteArgument(
+			final int index,
+			final String newValue,
+			final String symbolName
+			)
 	{
-		String string = _command;
-
-		String args = "";
+		replaceArgument(index, newValue);
 
-		for(final String arg : _args)
+		if(_substitutedSymbols == null)
 		{
-			if(args.isEmpty())
-			{
-				args = arg;
-			}
-			else
-			{
-				args += "," + arg;
-			}
+			_substitutedSymbols = new String[_args.length];
 		}
+		_substitutedSymbols[index] = symbolName;
+	}
+
+	/**
+	 * @return The name of the symbol whose value replaced the argument, or `null` if it wasn't substituted
+	 */
+	public String getSubstitutedSymbol(final int index)
+	{
+		return (_substitutedSymbols == null) ? null : _substitutedSymbols[index];
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder string = new StringBuilder(_command);
 
-		if(args.isEmpty() == false)
+		for(int i = 0; i < _args.length; i++)
 		{
-			string += " " + args;
+			string.append((i == 0) ? ' ' : Syntax.ARGUMENTS_SEPARATOR);
+			string.append(_args[i]);
 		}
 
-		return string;
+		return string.toString();
 	}
 }
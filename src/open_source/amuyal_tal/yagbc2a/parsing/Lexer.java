@@ -0,0 +1,289 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.parsing;
+
+/**
+ * Normalizes and tokenizes a source line in a single pass over its characters.
+ *
+ * Normalization rules:
+ *  - A comment symbol terminates the line
+ *  - White-spaces are collapsed to a single space, leading and trailing ones are removed
+ *  - No space is kept around `:`, `,`, `+` and `-`, after `(` and before `)`
+ */
+public final class Lexer
+{
+	private Lexer()
+	{
+		//Static class
+	}
+
+	private static final char COMMENT_CHARACTER = Syntax.COMMENT_SYMBOL.charAt(0);
+
+	//States of the tokenizer
+	private static final int LINE_START = 0; //Expecting a label or the first word
+	private static final int FIRST_WORD = 1;
+	private static final int OPERANDS = 2; //After a mnemonic
+	private static final int DIRECTIVE_ARGUMENTS = 3; //After a directive
+	private static final int LITERAL = 4; //Inside a string literal, until the line's end
+
+	public static TokenStream tokenize(
+			final CharSequence line
+			)
+	{
+		return tokenize(line, 0, line.length());
+	}
+
+	public static TokenStream tokenize(
+			final CharSequence source,
+			final int start,
+			final int end
+			)
+	{
+		final char[] text = new char[end - start];
+		int length = 0;
+		int wordsCount = 0;
+		boolean pendingSpace = false;
+
+		final TokenStream tokens = new TokenStream();
+
+		int state = LINE_START;
+		int tokenStart = 0;
+		boolean isLabelEligible = false;
+
+		for(int i = start; i < end; i++)
+		{
+			final char ch = source.charAt(i);
+
+			if(ch == COMMENT_CHARACTER)
+			{
+				break;
+			}
+
+			if(ch <= ' ')
+			{
+				pendingSpace = true;
+				continue;
+			}
+
+			if(pendingSpace && length > 0 && isSpaceKeptBetween(text[length - 1], ch))
+			{
+				text[length] = ' ';
+
+				if(state == FIRST_WORD)
+				{
+					final boolean isDirective = isDirective(text, tokenStart, length);
+					tokens.add(isDirective ? TokenType.DIRECTIVE : TokenType.MNEMONIC, tokenStart, length);
+					state = isDirective ? DIRECTIVE_ARGUMENTS : OPERANDS;
+				}
+				else if(state == OPERANDS)
+				{
+					tokens.add(TokenType.OPERAND, tokenStart, length);
+				}
+				else if(state == DIRECTIVE_ARGUMENTS)
+				{
+					tokens.add(TokenType.WORD, tokenStart, length);
+				}
+
+				length++;
+				wordsCount++;
+
+				if(state != LITERAL)
+				{
+					tokenStart = length;
+				}
+			}
+			pendingSpace = false;
+
+			final int position = length;
+			text[length++] = ch;
+
+			switch(state)
+			{
+				case LINE_START:
+				{
+					if(ch == Syntax.LABEL_SYMBOL)
+					{
+						tokens.add(TokenType.LABEL, position, position); //A nameless label
+					}
+					else
+					{
+						if(wordsCount == 0)
+						{
+							wordsCount = 1;
+						}
+
+						tokenStart = position;
+						isLabelEligible = (ch != Syntax.ARGUMENTS_SEPARATOR) && (ch != Syntax.STRING_DELIMITER);
+						state = FIRST_WORD;
+					}
+				}
+				break;
+
+				case FIRST_WORD:
+				{
+					if(ch == Syntax.LABEL_SYMBOL && isLabelEligible)
+					{
+						tokens.add(TokenType.LABEL, tokenStart, position);
+						state = LINE_START;
+					}
+					else if(ch == Syntax.ARGUMENTS_SEPARATOR || ch == Syntax.STRING_DELIMITER)
+					{
+						isLabelEligible = false;
+					}
+				}
+				break;
+
+				case OPERANDS:
+				{
+					if(ch == Syntax.ARGUMENTS_SEPARATOR)
+					{
+						tokens.add(TokenType.OPERAND, tokenStart, position);
+						tokenStart = position + 1;
+					}
+				}
+				break;
+
+				case DIRECTIVE_ARGUMENTS:
+				{
+					if(ch == Syntax.STRING_DELIMITER && position == tokenStart)
+					{
+						state = LITERAL;
+					}
+				}
+				break;
+
+				default:
+				{
+					//Literals span until the line's end
+				}
+				break;
+			}
+		}
+
+		switch(state)
+		{
+			case FIRST_WORD:
+			{
+				final boolean isDirective = isDirective(text, tokenStart, length);
+				tokens.add(isDirective ? TokenType.DIRECTIVE : TokenType.MNEMONIC, tokenStart, length);
+			}
+			break;
+
+			case OPERANDS:
+			{
+				tokens.add(TokenType.OPERAND, tokenStart, length);
+			}
+			break;
+
+			case DIRECTIVE_ARGUMENTS:
+			{
+				tokens.add(TokenType.WORD, tokenStart, length);
+			}
+			break;
+
+			case LITERAL:
+			{
+				tokens.add(TokenType.LITERAL, tokenStart, length);
+			}
+			break;
+
+			default:
+			{
+				//No pending token
+			}
+			break;
+		}
+
+		tokens.setText(new String(text, 0, length), wordsCount);
+
+		return tokens;
+	}
+
+	private static boolean isSpaceKeptBetween(
+			final char previous,
+			final char next
+			)
+	{
+		switch(previous)
+		{
+			case ':':
+			case ',':
+			case '+':
+			case '-':
+			case '(':
+			{
+				return false;
+			}
+		}
+
+		switch(next)
+		{
+			case ':':
+			case ',':
+			case '+':
+			case '-':
+			case ')':
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean isDirective(
+			final char[] text,
+			final int start,
+			final int end
+			)
+	{
+		return regionEquals(text, start, end, Syntax.FUNCTION_BEGIN, false) ||
+				regionEquals(text, start, end, Syntax.VARIABLE_DEFINITION, false) ||
+				regionEquals(text, start, end, Syntax.FUNCTION_END, true);
+	}
+
+	private static boolean regionEquals(
+			final char[] text,
+			final int start,
+			final int end,
+			final String string,
+			final boolean ignoreCase
+			)
+	{
+		if(end - start != string.length())
+		{
+			return false;
+		}
+
+		for(int i = 0; i < string.length(); i++)
+		{
+			final char ch = text[start + i];
+			final char other = string.charAt(i);
+
+			if(ch != other && (ignoreCase == false || Character.toLowerCase(ch) != Character.toLowerCase(other)))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,176 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.parsing;
+
+import open_source.amuyal_tal.yagbc2a.OperandDataBase;
+import open_source.amuyal_tal.yagbc2a.language.operand.FlagConditionOperand;
+import open_source.amuyal_tal.yagbc2a.language.operand.Operand;
+import open_source.amuyal_tal.yagbc2a.language.operand.RegisterOperand;
+import open_source.amuyal_tal.yagbc2a.utils.Utils;
+
+/**
+ * An argument of an instruction, classified (and its numeric value parsed) once, rather than by each of the
+ * candidate templates
+ */
+public final class OperandToken
+{
+	public enum Kind
+	{
+		REGISTER,
+		FLAG, //A flag condition (`C` is classified as a register, which the carry condition shares its name with)
+		NUMBER,
+		POINTER, //An argument within brackets
+		OFFSET, //A register with a signed offset (e.g. `SP+17`)
+		SYMBOL //Anything else (e.g. a label that wasn't resolved yet)
+	}
+
+	private static final char POINTER_BEGIN = '(';
+	private static final char POINTER_END = ')';
+	private static final char OFFSET_SEPARATOR = '+';
+
+	private final String _text;
+	private final Kind _kind;
+	private final Operand _namedOperand; //The register or the flag condition (of the base, for an offset), otherwise `null`
+	private final int _value; //The number (or the offset), otherwise 0
+	private final OperandToken _pointedToken; //The argument within the brackets of a pointer, otherwise `null`
+	private final long _matchingOperands; //A bitmask of the IDs of the operands that match the argument
+
+	private OperandToken(
+			final String text,
+			final Kind kind,
+			final Operand namedOperand,
+			final int value,
+			final OperandToken pointedToken
+			)
+	{
+		_text = text;
+		_kind = kind;
+		_namedOperand = namedOperand;
+		_value = value;
+		_pointedToken = pointedToken;
+		_matchingOperands = OperandDataBase.getMatchingOperands(this);
+	}
+
+	public static OperandToken classify(final String text)
+	{
+		if(text.length() > 2 && text.charAt(0) == POINTER_BEGIN && text.charAt(text.length() - 1) == POINTER_END)
+		{
+			final OperandToken pointedToken = classify(text.substring(1, text.length() - 1));
+
+			return new OperandToken(text, Kind.POINTER, null, 0, pointedToken);
+		}
+
+		final int offsetSeparatorIndex = text.indexOf(OFFSET_SEPARATOR);
+		if(offsetSeparatorIndex >= 0)
+		{
+			return classifyOffset(text, offsetSeparatorIndex);
+		}
+
+		final Operand namedOperand = OperandDataBase.searchNamedOperand(text);
+		if(namedOperand instanceof RegisterOperand)
+		{
+			return new OperandToken(text, Kind.REGISTER, namedOperand, 0, null);
+		}
+		else if(namedOperand instanceof FlagConditionOperand)
+		{
+			return new OperandToken(text, Kind.FLAG, namedOperand, 0, null);
+		}
+
+		final long literal = Utils.parseLiteral(text, 0, text.length());
+		if(Utils.isValidLiteral(literal))
+		{
+			return new OperandToken(text, Kind.NUMBER, null, Utils.getLiteralValue(literal), null);
+		}
+
+		return new OperandToken(text, Kind.SYMBOL, null, 0, null);
+	}
+
+	/**
+	 * An offset is a register, followed by a decimal offset
+	 */
+	private static OperandToken classifyOffset(
+			final String text,
+			final int separatorIndex
+			)
+	{
+		final Operand baseOperand = OperandDataBase.searchNamedOperand(text.substring(0, separatorIndex));
+
+		if(baseOperand instanceof RegisterOperand)
+		{
+			final long offset = Utils.parseDecimalLiteral(text, separatorIndex + 1, text.length());
+
+			if(Utils.isValidLiteral(offset))
+			{
+				return new OperandToken(text, Kind.OFFSET, baseOperand, Utils.getLiteralValue(offset), null);
+			}
+		}
+
+		return new OperandToken(text, Kind.SYMBOL, null, 0, null);
+	}
+
+	/**
+	 * Same as {@link Operand#matches(OperandToken)}, with a single bit test
+	 */
+	public boolean isMatchedBy(final Operand operand)
+	{
+		return (_matchingOperands & operand.getMask()) != 0;
+	}
+
+	public String getText()
+	{
+		return _text;
+	}
+
+	public Kind getKind()
+	{
+		return _kind;
+	}
+
+	/**
+	 * @return The register or the flag condition (the base register, for an offset), or `null` if there is none
+	 */
+	public Operand getNamedOperand()
+	{
+		return _namedOperand;
+	}
+
+	/**
+	 * @return The value of a number, or the offset of an offset
+	 */
+	public int getValue()
+	{
+		return _value;
+	}
+
+	/**
+	 * @return The argument within the brackets of a pointer, or `null` if this isn't a pointer
+	 */
+	public OperandToken getPointedToken()
+	{
+		return _pointedToken;
+	}
+
+	@Override
+	public String toString()
+	{
+		return _text;
+	}
+}
@@ -21,22 +21,94 @@
 package open_source.amuyal_tal.yagbc2a.parsing;
 
 import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.NoSuchElementException;
 
 import open_source.amuyal_tal.yagbc2a.HandledException;
 import open_source.amuyal_tal.yagbc2a.utils.Utils;
 
+/**
+ * The lines of a source file, in the order of their line numbers.
+ *
+ * Lines are kept in an array, with a bit per line that tells whether the line is live (wasn't removed), thus a
+ * line is removed in constant time. Removed lines are compacted away once most of the lines are removed, by the
+ * next iteration.
+ *
+ * A read file is memory-mapped, and only the offsets of its lines are kept. A line is tokenized once it is
+ * iterated (thus, a line that is translated and removed on its first iteration is never kept). Lines that are
+ * empty (blank or comment-only) are skipped by the reading.
+ *
+ * A read stream (e.g. the standard input) is read as its lines are iterated, thus a single pass over the lines
+ * (e.g. of the streaming mode) translates each line as it arrives.
+ *
+ * A source file is not thread-safe, it is meant to be assembled by a single thread.
+ */
 public final class SourceFile implements Iterable<SourceLine>
 {
-	public final Queue<SourceLine> _lines;
+	/**
+	 * A path that stands for the standard input instead of a file
+	 */
+	public static final String STANDARD_INPUT_PATH = "-";
+
+	/**
+	 * The name of the standard input, when read as a source file (e.g. in error messages)
+	 */
+	public static final String STANDARD_INPUT_NAME = "<stdin>";
+
+	private static final int INITIAL_CAPACITY = 64; //Must be a multiple of 64 (bits per word of the live-lines set)
+
+	private SourceLine[] _lines; //Removed lines and lines that weren't tokenized yet are `null`
+	private long[] _liveLines; //A bit per line of `_lines`
+	private int _count; //Used entries of `_lines`, including removed lines
+	private int _liveCount;
+	private int _addedCount; //Lines that were ever added, including removed lines
+
+	//Spans of the lines (in `_text`) and line numbers, for tokenizing lines on demand
+	private int[] _starts;
+	private int[] _ends;
+	private int[] _lineNumbers;
+	private CharSequence _text; //The read file (`null` if no file has been read)
+
+	private BufferedReader _reader; //The read stream, until it ends (`null` if none)
+	private int _nextLineNumber; //Of the read stream
+
+	private String _filePath;
 
 	public SourceFile()
 	{
-		_lines = new LinkedBlockingQueue<SourceLine>();
+		_lines = new SourceLine[INITIAL_CAPACITY];
+		_liveLines = new long[INITIAL_CAPACITY / Long.SIZE];
+		_count = 0;
+		_liveCount = 0;
+		_addedCount = 0;
+
+		_starts = new int[INITIAL_CAPACITY];
+		_ends = new int[INITIAL_CAPACITY];
+		_lineNumbers = new int[INITIAL_CAPACITY];
+		_text = null;
+
+		_reader = null;
+		_nextLineNumber = 1;
+
+		_filePath = null; //Unknown until a file is read
+	}
+
+	/**
+	 * @return The path of the read file, or `null` if no file has been read
+	 */
+	public String getFilePath()
+	{
+		return _filePath;
 	}
 
 	public void readFile(
@@ -44,16 +116,14 @@ public final class SourceFile implements Iterable<SourceLine>
 			)
 					throws HandledException
 	{
-		BufferedReader br = null;
-		try
+		_filePath = filePath;
+
+		try(final FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ))
 		{
-			br = new BufferedReader(new FileReader(new File(filePath)));
+			final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); //Remains valid once the channel is closed
 
-			int lineNumber = 1;
-			for(String line; (line = br.readLine()) != null; lineNumber++)
-			{
-				_lines.add(new SourceLine(line, filePath, lineNumber));
-			}
+			_text = new AsciiText(buffer);
+			readLines(buffer);
 		}
 		catch(final Throwable throwable)
 		{
@@ -61,25 +131,385 @@ public final class SourceFile implements Iterable<SourceLine>
 
 			throw new HandledException();
 		}
-		finally
+	}
+
+	/**
+	 * Same as {@link #readFile(String)}, for the content of a file that was already read (e.g. to be hashed), so
+	 * the lines are the exact same bytes
+	 */
+	public void readContent(
+			final String filePath,
+			final byte[] content
+			)
+	{
+		_filePath = filePath;
+
+		final ByteBuffer buffer = ByteBuffer.wrap(content);
+
+		_text = new AsciiText(buffer);
+		readLines(buffer);
+	}
+
+	/**
+	 * Reads the lines of a stream as they are iterated (unlike a file, that is read at once)
+	 *
+	 * @param name The name of the stream, that stands for the path of a file (e.g. in error messages)
+	 */
+	public void readStream(
+			final InputStream stream,
+			final String name
+			)
+	{
+		_filePath = name;
+		_reader = new BufferedReader(new InputStreamReader(stream)); //Decoded as a file is (by the default charset)
+	}
+
+	/**
+	 * Reads lines of the stream, until a non-empty one is added
+	 *
+	 * @return Whether a line was added (otherwise, the stream ended)
+	 */
+	private boolean readStreamLine()
+	{
+		if(_reader == null)
+		{
+			return false;
+		}
+
+		try
 		{
-			if(br != null)
+			for(String line; (line = _reader.readLine()) != null; )
 			{
-				try
+				final SourceLine sourceLine = new SourceLine(line, _filePath, _nextLineNumber);
+				_nextLineNumber++;
+
+				if(sourceLine.isEmpty() == false)
 				{
-					br.close();
+					add(sourceLine);
+					return true;
 				}
-				catch(final Throwable throwable)
+			}
+		}
+		catch(final IOException ex)
+		{
+			throw new UncheckedIOException(ex); //Iterators can't throw checked exceptions
+		}
+
+		_reader = null; //The stream is not closed, as it is owned by the caller
+		return false;
+	}
+
+	/**
+	 * Records the spans of the non-empty lines. Lines are terminated as by {@link java.io.BufferedReader#readLine()}
+	 *  (a line feed, a carriage return or both).
+	 */
+	private void readLines(
+			final ByteBuffer buffer
+			)
+	{
+		final int size = buffer.limit();
+		final Charset charset = Charset.defaultCharset(); //As the source files are read by `FileReader`
+
+		int lineNumber = 1;
+		int lineStart = 0;
+		boolean isEmpty = true; //No character that isn't a white-space, before a comment (see `Lexer`)
+		boolean isComment = false;
+		boolean isAscii = true;
+
+		for(int i = 0; i <= size; i++)
+		{
+			final byte value = (i < size) ? buffer.get(i) : (byte)'\n'; //The last line may not be terminated
+
+			if(value == '\n' || value == '\r')
+			{
+				if(isEmpty)
+				{
+					//Skipped, as it has no tokens
+				}
+				else if(isAscii)
+				{
+					addLazy(lineStart, i, lineNumber);
+				}
+				else //Decoded, as a character may span multiple bytes
+				{
+					final byte[] bytes = new byte[i - lineStart];
+					buffer.get(lineStart, bytes);
+
+					add(new SourceLine(new String(bytes, charset), _filePath, lineNumber));
+				}
+
+				if(value == '\r' && i + 1 < size && buffer.get(i + 1) == '\n')
+				{
+					i++;
+				}
+
+				lineNumber++;
+				lineStart = i + 1;
+				isEmpty = true;
+				isComment = false;
+				isAscii = true;
+			}
+			else if(isComment == false)
+			{
+				if(value < 0) //A byte of a multi-byte character
 				{
-					throw new HandledException();
+					isAscii = false;
+					isEmpty = false;
+				}
+				else if(value == Syntax.COMMENT_SYMBOL.charAt(0))
+				{
+					isComment = true;
+				}
+				else if(value > ' ')
+				{
+					isEmpty = false;
 				}
 			}
 		}
 	}
 
+	/**
+	 * Appends a line (after the lines of greater line numbers)
+	 */
+	public void add(
+			final SourceLine sourceLine
+			)
+	{
+		ensureCapacity();
+
+		_lines[_count] = sourceLine;
+		_liveLines[_count / Long.SIZE] |= 1L << _count; //Shifts are modulo the bits count
+		_count++;
+		_liveCount++;
+		_addedCount++;
+	}
+
+	/**
+	 * Appends a line of the read file, to be tokenized once it is iterated
+	 */
+	private void addLazy(
+			final int start,
+			final int end,
+			final int lineNumber
+			)
+	{
+		ensureCapacity();
+
+		_starts[_count] = start;
+		_ends[_count] = end;
+		_lineNumbers[_count] = lineNumber;
+		_liveLines[_count / Long.SIZE] |= 1L << _count;
+		_count++;
+		_liveCount++;
+		_addedCount++;
+	}
+
+	private void ensureCapacity()
+	{
+		if(_count == _lines.length)
+		{
+			_lines = Arrays.copyOf(_lines, _count * 2);
+			_liveLines = Arrays.copyOf(_liveLines, _lines.length / Long.SIZE);
+			_starts = Arrays.copyOf(_starts, _lines.length);
+			_ends = Arrays.copyOf(_ends, _lines.length);
+			_lineNumbers = Arrays.copyOf(_lineNumbers, _lines.length);
+		}
+	}
+
+	/**
+	 * @return The line, tokenized (if it wasn't yet)
+	 */
+	private SourceLine getLine(
+			final int index
+			)
+	{
+		if(_lines[index] == null)
+		{
+			_lines[index] = new SourceLine(_text, _starts[index], _ends[index], _filePath, _lineNumbers[index]);
+		}
+
+		return _lines[index];
+	}
+
+	/**
+	 * @return The amount of lines that weren't removed (lines of a stream are counted once they are read)
+	 */
+	public int getLinesCount()
+	{
+		return _liveCount;
+	}
+
+	/**
+	 * @return The amount of lines that were ever added, including removed ones (lines of a stream are counted
+	 *  once they are read)
+	 */
+	public int getAddedLinesCount()
+	{
+		return _addedCount;
+	}
+
+	/**
+	 * Iterates the lines that weren't removed. The iterator's {@link Iterator#remove()} is done in constant time.
+	 */
 	@Override
 	public Iterator<SourceLine> iterator()
 	{
-		return _lines.iterator();
+		if(_liveCount < _count / 2)
+		{
+			compact();
+		}
+
+		return new LinesIterator();
+	}
+
+	/**
+	 * Moves the live lines to the beginning of the array, for the iteration to skip less removed lines
+	 */
+	private void compact()
+	{
+		int liveIndex = 0;
+		for(int i = nextLiveIndex(0); i < _count; i = nextLiveIndex(i + 1))
+		{
+			_lines[liveIndex] = _lines[i];
+			_starts[liveIndex] = _starts[i];
+			_ends[liveIndex] = _ends[i];
+			_lineNumbers[liveIndex] = _lineNumbers[i];
+			liveIndex++;
+		}
+
+		Utils.assertCondition(liveIndex == _liveCount);
+
+		Arrays.fill(_lines, _liveCount, _count, null);
+		Arrays.fill(_liveLines, 0);
+		for(int i = 0; i < _liveCount; i++)
+		{
+			_liveLines[i / Long.SIZE] |= 1L << i;
+		}
+
+		_count = _liveCount;
+	}
+
+	/**
+	 * @return The index of the first live line at the index or after it, or `_count` if there is none
+	 */
+	private int nextLiveIndex(
+			final int fromIndex
+			)
+	{
+		int wordIndex = fromIndex / Long.SIZE;
+		if(wordIndex >= _liveLines.length)
+		{
+			return _count;
+		}
+
+		long word = _liveLines[wordIndex] & (-1L << fromIndex); //Lines before the index are masked
+		while(word == 0)
+		{
+			wordIndex++;
+			if(wordIndex == _liveLines.length)
+			{
+				return _count;
+			}
+
+			word = _liveLines[wordIndex];
+		}
+
+		return Integer.min(wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word), _count);
+	}
+
+	private final class LinesIterator implements Iterator<SourceLine>
+	{
+		private int _nextIndex;
+		private int _lastIndex; //Of the line returned by `next()`, -1 if none or if it was removed
+
+		private LinesIterator()
+		{
+			_nextIndex = nextLiveIndex(0);
+			_lastIndex = -1;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return _nextIndex < _count || readStreamLine(); //A read line is added at `_count`, which is `_nextIndex`
+		}
+
+		@Override
+		public SourceLine next()
+		{
+			if(hasNext() == false)
+			{
+				throw new NoSuchElementException();
+			}
+
+			_lastIndex = _nextIndex;
+			_nextIndex = nextLiveIndex(_nextIndex + 1);
+
+			return getLine(_lastIndex);
+		}
+
+		@Override
+		public void remove()
+		{
+			if(_lastIndex < 0)
+			{
+				throw new IllegalStateException();
+			}
+
+			_lines[_lastIndex] = null;
+			_liveLines[_lastIndex / Long.SIZE] &= ~(1L << _lastIndex);
+			_liveCount--;
+			_lastIndex = -1;
+		}
+	}
+
+	/**
+	 * The text of a file whose characters are single bytes, without decoding it
+	 */
+	private static final class AsciiText implements CharSequence
+	{
+		private final ByteBuffer _buffer;
+
+		private AsciiText(
+				final ByteBuffer buffer
+				)
+		{
+			_buffer = buffer;
+		}
+
+		@Override
+		public int length()
+		{
+			return _buffer.limit();
+		}
+
+		@Override
+		public char charAt(
+				final int index
+				)
+		{
+			return (char)(_buffer.get(index) & 0xFF);
+		}
+
+		@Override
+		public CharSequence subSequence(
+				final int start,
+				final int end
+				)
+		{
+			final char[] chars = new char[end - start];
+			for(int i = 0; i < chars.length; i++)
+			{
+				chars[i] = charAt(start + i);
+			}
+
+			return new String(chars);
+		}
+
+		@Override
+		public String toString()
+		{
+			return subSequence(0, length()).toString();
+		}
 	}
 }
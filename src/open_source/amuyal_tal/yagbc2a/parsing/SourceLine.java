@@ -25,7 +25,9 @@ public class SourceLine
 	private final String _fileName;
 	private final int _lineNumber;
 
-	private String _content; //transformed
+	private TokenStream _tokens;
+	private int _firstTokenIndex; //Preceding tokens were already consumed
+	private CommandTokens _commandTokens; //Parsed on demand
 
 	public SourceLine(
 			final String text,
@@ -36,54 +38,89 @@ public class SourceLine
 		_fileName = filneName;
 		_lineNumber = lineNumber;
 
-		_content = text;
-		//Remove comments
-		{
-			final String[] splitLine = _content.split(Syntax.COMMENT_SYMBOL);
-			_content = splitLine[0];
-		}
-
-		//Remove white-spaces
-		{
-			_content = _content.replace('\t', ' ');
+		resetText(text);
+	}
 
-			while(_content.contains("  "))
-			{
-				_content = _content.replace("  ", " ");
-			}
+	/**
+	 * For a line that is a part of a text (e.g. of a whole file), tokenized without copying the line's text
+	 */
+	public SourceLine(
+			final CharSequence source,
+			final int start,
+			final int end,
+			final String filneName,
+			final int lineNumber
+			)
+	{
+		_fileName = filneName;
+		_lineNumber = lineNumber;
 
-			_content = _content.replace(": ", ":");
-			_content = _content.replace(" :", ":");
+		_tokens = Lexer.tokenize(source, start, end);
+		_firstTokenIndex = 0;
+		_commandTokens = null;
+	}
 
-			_content = _content.replace(", ", ",");
-			_content = _content.replace(" ,", ",");
+	/**
+	 * @return The normalized text of the line, excluding consumed tokens
+	 */
+	public String getText()
+	{
+		return _tokens.getText(_firstTokenIndex);
+	}
 
-			_content = _content.replace("+ ", "+");
-			_content = _content.replace(" +", "+");
+	public void resetText(final String newText)
+	{
+		_tokens = Lexer.tokenize(newText);
+		_firstTokenIndex = 0;
+		_commandTokens = null;
+	}
 
-			_content = _content.replace("- ", "-");
-			_content = _content.replace(" -", "-");
+	public TokenStream getTokens()
+	{
+		return _tokens;
+	}
 
-			_content = _content.replace("( ", "(");
-			_content = _content.replace(" )", ")");
+	/**
+	 * @return The index of the first token that wasn't consumed
+	 */
+	public int getFirstTokenIndex()
+	{
+		return _firstTokenIndex;
+	}
 
-			_content = _content.trim();
-		}
+	/**
+	 * @return The type of the first token that wasn't consumed, or `null` if there is none
+	 */
+	public TokenType getFirstTokenType()
+	{
+		return isEmpty() ? null : _tokens.getType(_firstTokenIndex);
 	}
 
-	public String getText()
+	/**
+	 * Marks the first token that wasn't consumed as consumed (e.g. once a label is registered)
+	 */
+	public void consumeToken()
 	{
-		return _content;
+		_firstTokenIndex++;
+		_commandTokens = null;
 	}
 
-	public void resetText(final String newText)
+	/**
+	 * @return The line as an instruction. The result is cached, thus modifications made to it are kept.
+	 */
+	public CommandTokens getCommandTokens() throws SyntaxException
 	{
-		_content = newText;
+		if(_commandTokens == null)
+		{
+			_commandTokens = new CommandTokens(_tokens, _firstTokenIndex);
+		}
+
+		return _commandTokens;
 	}
 
 	public boolean isEmpty()
 	{
-		return _content.isEmpty();
+		return _firstTokenIndex >= _tokens.getTokensCount();
 	}
 
 	public String getFileName()
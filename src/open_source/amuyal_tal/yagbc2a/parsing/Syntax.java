@@ -23,6 +23,13 @@ package open_source.amuyal_tal.yagbc2a.parsing;
 public final class Syntax
 {
 	public static final String COMMENT_SYMBOL = ";";
+	public static final char LABEL_SYMBOL = ':';
+	public static final char ARGUMENTS_SEPARATOR = ',';
+	public static final char STRING_DELIMITER = '"';
+
+	public static final String FUNCTION_BEGIN = "func";
+	public static final String FUNCTION_END = "end";
+	public static final String VARIABLE_DEFINITION = "define";
 
 	public static final int ADDRESS_CODE_START = 0x0100;
 	public static final int ADDRESS_STACK_POINTER_DEFAULT = 0x0FFE;
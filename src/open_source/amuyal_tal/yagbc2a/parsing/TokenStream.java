@@ -0,0 +1,169 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.parsing;
+
+import java.util.Arrays;
+
+/**
+ * The tokens of a single (normalized) source line. Tokens are kept as spans of the line's text.
+ */
+public final class TokenStream
+{
+	private static final int INITIAL_CAPACITY = 4;
+
+	private String _text;
+	private int _wordsCount;
+
+	private byte[] _types;
+	private int[] _starts;
+	private int[] _ends;
+	private int _count;
+
+	TokenStream()
+	{
+		_text = "";
+		_wordsCount = 0;
+
+		_types = new byte[INITIAL_CAPACITY];
+		_starts = new int[INITIAL_CAPACITY];
+		_ends = new int[INITIAL_CAPACITY];
+		_count = 0;
+	}
+
+	void setText(
+			final String text,
+			final int wordsCount
+			)
+	{
+		_text = text;
+		_wordsCount = wordsCount;
+	}
+
+	void add(
+			final TokenType type,
+			final int start,
+			final int end
+			)
+	{
+		if(_count == _types.length)
+		{
+			_types = Arrays.copyOf(_types, _count * 2);
+			_starts = Arrays.copyOf(_starts, _count * 2);
+			_ends = Arrays.copyOf(_ends, _count * 2);
+		}
+
+		_types[_count] = (byte)type.ordinal();
+		_starts[_count] = start;
+		_ends[_count] = end;
+		_count++;
+	}
+
+	/**
+	 * @return The normalized text of the line
+	 */
+	public String getText()
+	{
+		return _text;
+	}
+
+	/**
+	 * @return The normalized text of the line, starting at the given token
+	 */
+	public String getText(
+			final int firstTokenIndex
+			)
+	{
+		return (firstTokenIndex >= _count) ? "" : _text.substring(_starts[firstTokenIndex]);
+	}
+
+	public int getTokensCount()
+	{
+		return _count;
+	}
+
+	/**
+	 * @return The amount of space-separated words in the line (labels are part of the word that follows them)
+	 */
+	public int getWordsCount()
+	{
+		return _wordsCount;
+	}
+
+	public TokenType getType(
+			final int index
+			)
+	{
+		return TokenType.fromOrdinal(_types[index]);
+	}
+
+	public int getStart(
+			final int index
+			)
+	{
+		return _starts[index];
+	}
+
+	public int getEnd(
+			final int index
+			)
+	{
+		return _ends[index];
+	}
+
+	public int getLength(
+			final int index
+			)
+	{
+		return _ends[index] - _starts[index];
+	}
+
+	public String getToken(
+			final int index
+			)
+	{
+		return _text.substring(_starts[index], _ends[index]);
+	}
+
+	public boolean tokenEquals(
+			final int index,
+			final String string
+			)
+	{
+		return (getLength(index) == string.length()) && _text.startsWith(string, _starts[index]);
+	}
+
+	public boolean isDirective(
+			final int index,
+			final String directive
+			)
+	{
+		return (index < _count) &&
+				(getType(index) == TokenType.DIRECTIVE) &&
+				(getLength(index) == directive.length()) &&
+				_text.regionMatches(true, _starts[index], directive, 0, directive.length());
+	}
+
+	@Override
+	public String toString()
+	{
+		return _text;
+	}
+}
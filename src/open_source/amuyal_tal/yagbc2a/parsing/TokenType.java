@@ -0,0 +1,61 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.parsing;
+
+public enum TokenType
+{
+	/**
+	 * A label's name (without the trailing colon)
+	 */
+	LABEL,
+
+	/**
+	 * A keyword of the language itself (e.g. `func`, `end` and `define`)
+	 */
+	DIRECTIVE,
+
+	/**
+	 * A directive's argument
+	 */
+	WORD,
+
+	/**
+	 * A quoted string literal (including the quotation marks) that spans until the line's end
+	 */
+	LITERAL,
+
+	/**
+	 * An instruction's command
+	 */
+	MNEMONIC,
+
+	/**
+	 * An instruction's argument
+	 */
+	OPERAND;
+
+	private static final TokenType[] _values = values();
+
+	static TokenType fromOrdinal(final int ordinal)
+	{
+		return _values[ordinal];
+	}
+}
@@ -0,0 +1,311 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.tools;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import open_source.amuyal_tal.yagbc2a.HandledException;
+import open_source.amuyal_tal.yagbc2a.core.Assembler;
+import open_source.amuyal_tal.yagbc2a.core.Linker;
+import open_source.amuyal_tal.yagbc2a.core.object.ObjectFile;
+import open_source.amuyal_tal.yagbc2a.core.object.Symbol;
+import open_source.amuyal_tal.yagbc2a.core.object.VariableSymbol;
+import open_source.amuyal_tal.yagbc2a.core.object.cartridge.BootHeader;
+import open_source.amuyal_tal.yagbc2a.parsing.SourceFile;
+
+/**
+ * Runs the golden-image tests in-process and in parallel: each `*.asm` file of the tests directory is
+ * assembled and linked, and the image is compared byte by byte to the matching `*.gb` file (the same test
+ * convention as of `tools/Tester.py`).
+ *
+ * On a mismatch, the first differing offset is reported, along with the part of the image it falls in (the
+ * boot header, or the symbol in the data or code segment).
+ *
+ * A test that has a `*.fail` file instead of an image is expected to fail (with a proper message).
+ *
+ * Usage (from the project's root): `GoldenTester [tests directory] [--jobs <count>] [--streaming]`
+ */
+public final class GoldenTester
+{
+	private static final String DEFAULT_TESTS_DIRECTORY = "tests";
+	private static final String SOURCE_FILE_EXTENSION = ".asm";
+	private static final String IMAGE_FILE_EXTENSION = ".gb";
+	private static final String FAILURE_FILE_EXTENSION = ".fail";
+
+	public static void main(final String[] args)
+	{
+		String testsDirectoryPath = DEFAULT_TESTS_DIRECTORY;
+		int jobsCount = Runtime.getRuntime().availableProcessors();
+		boolean isStreaming = false;
+
+		for(int i = 0; i < args.length; i++)
+		{
+			switch(args[i])
+			{
+				case "--jobs":
+				case "-j":
+				{
+					i++;
+					if(i < args.length && args[i].matches("[1-9][0-9]*"))
+					{
+						jobsCount = Integer.parseInt(args[i]);
+					}
+					else
+					{
+						System.out.println("Missing (positive) jobs count");
+						System.exit(2);
+					}
+				}
+				break;
+
+				case "--streaming":
+				case "-s":
+				{
+					isStreaming = true;
+				}
+				break;
+
+				default:
+				{
+					testsDirectoryPath = args[i];
+				}
+				break;
+			}
+		}
+
+		final File[] files = new File(testsDirectoryPath).listFiles();
+		if(files == null)
+		{
+			System.out.println(String.format("No tests directory `%s`", testsDirectoryPath));
+			System.exit(2);
+		}
+		Arrays.sort(files);
+
+		final ForkJoinPool pool = new ForkJoinPool(jobsCount);
+		final List<Test> tests = new ArrayList<Test>();
+
+		for(final File file : files)
+		{
+			if(file.isFile() && file.getName().endsWith(SOURCE_FILE_EXTENSION))
+			{
+				final Test test = new Test(file, isStreaming);
+				pool.execute(test);
+				tests.add(test);
+			}
+		}
+
+		int failuresCount = 0;
+		for(final Test test : tests)
+		{
+			final String failure = test.join();
+
+			if(failure == null)
+			{
+				System.out.println(String.format("%s: passed", test.getName()));
+			}
+			else
+			{
+				System.out.println(String.format("%s: failed - %s", test.getName(), failure));
+				failuresCount++;
+			}
+		}
+
+		pool.shutdown();
+
+		System.out.println(String.format(
+				"%d tests, %d successful, %d failed",
+				tests.size(),
+				tests.size() - failuresCount,
+				failuresCount
+				));
+
+		System.exit((failuresCount == 0) ? 0 : 1);
+	}
+
+	/**
+	 * A single test, whose result is the reason of its failure (or `null` if it passed)
+	 */
+	private static final class Test extends RecursiveTask<String>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final File _sourceFile;
+		private final boolean _isStreaming;
+
+		private Test(
+				final File sourceFile,
+				final boolean isStreaming
+				)
+		{
+			_sourceFile = sourceFile;
+			_isStreaming = isStreaming;
+		}
+
+		public String getName()
+		{
+			final String fileName = _sourceFile.getName();
+
+			return fileName.substring(0, fileName.length() - SOURCE_FILE_EXTENSION.length());
+		}
+
+		@Override
+		protected String compute()
+		{
+			final File goldenFile = new File(_sourceFile.getParentFile(), getName() + IMAGE_FILE_EXTENSION);
+			final boolean isFailureExpected = new File(_sourceFile.getParentFile(), getName() + FAILURE_FILE_EXTENSION).isFile();
+			if(isFailureExpected == false && goldenFile.isFile() == false)
+			{
+				return String.format("missing expected image `%s`", goldenFile.getPath());
+			}
+
+			try
+			{
+				final SourceFile sourceFile = new SourceFile();
+				sourceFile.readFile(_sourceFile.getPath());
+
+				final Linker linker = new Linker();
+				linker.linkObject(_isStreaming ?
+						Assembler.assembleStreaming(sourceFile) :
+						Assembler.assemble(sourceFile)
+						);
+
+				final byte[] image = linker.assembleImage();
+
+				if(isFailureExpected)
+				{
+					return "compiled, although it's expected to fail";
+				}
+
+				return compare(
+						Files.readAllBytes(goldenFile.toPath()),
+						image,
+						linker.getLinkedObject()
+						);
+			}
+			catch(final HandledException ex)
+			{
+				return isFailureExpected ? null : "couldn't be compiled"; //A proper message has been displayed
+			}
+			catch(final Throwable throwable)
+			{
+				return throwable.toString();
+			}
+		}
+	}
+
+	/**
+	 * @return The description of the first difference, or `null` if the images are identical
+	 */
+	private static String compare(
+			final byte[] expected,
+			final byte[] actual,
+			final ObjectFile linkedObject
+			)
+	{
+		final int commonSize = Integer.min(expected.length, actual.length);
+
+		for(int offset = 0; offset < commonSize; offset++)
+		{
+			if(expected[offset] != actual[offset])
+			{
+				return String.format(
+						"first difference at offset 0x%04X (expected 0x%02X, actual 0x%02X), in %s",
+						offset,
+						expected[offset] & 0xFF,
+						actual[offset] & 0xFF,
+						describeOffset(offset, linkedObject)
+						);
+			}
+		}
+
+		if(expected.length != actual.length)
+		{
+			return String.format(
+					"image size is %d bytes instead of %d (the first difference is at offset 0x%04X, in %s)",
+					actual.length,
+					expected.length,
+					commonSize,
+					describeOffset(commonSize, linkedObject)
+					);
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return The part of the image an offset falls in
+	 */
+	private static String describeOffset(
+			final int offset,
+			final ObjectFile linkedObject
+			)
+	{
+		final int dataSegmentAddress = BootHeader.getSize();
+		final int codeSegmentAddress = dataSegmentAddress + linkedObject.getDataSegmentSize();
+		final int imageSize = codeSegmentAddress + linkedObject.getCodeSegmentSize();
+
+		if(offset < dataSegmentAddress)
+		{
+			return "the boot header";
+		}
+
+		if(offset >= imageSize)
+		{
+			return "the end of the image";
+		}
+
+		final boolean isData = (offset < codeSegmentAddress);
+		final int segmentOffset = offset - (isData ? dataSegmentAddress : codeSegmentAddress);
+
+		//The symbol that starts closest before the offset, in the same segment
+		String ownerName = null;
+		int ownerAddress = -1;
+
+		for(final Map.Entry<String, Symbol> entry : linkedObject.getSymbolTable().getSymbols().entrySet())
+		{
+			final Symbol symbol = entry.getValue();
+
+			if((symbol instanceof VariableSymbol) == isData &&
+					symbol.getAddress() <= segmentOffset &&
+					symbol.getAddress() > ownerAddress)
+			{
+				ownerName = entry.getKey();
+				ownerAddress = symbol.getAddress();
+			}
+		}
+
+		final String segmentName = isData ? "data segment" : "code segment";
+
+		if(ownerName == null)
+		{
+			return String.format("the %s (offset 0x%04X, before any symbol)", segmentName, segmentOffset);
+		}
+
+		return String.format("the %s, at `%s`+%d", segmentName, ownerName, segmentOffset - ownerAddress);
+	}
+}
@@ -26,20 +26,9 @@ public final class Utils
 {
 	public static boolean isSignedByte(final String stringPotentialValue)
 	{
-		boolean result;
+		final long literal = parseDecimalLiteral(stringPotentialValue, 0, stringPotentialValue.length());
 
-		try
-		{
-			final int value = Integer.parseInt(stringPotentialValue);
-
-			result = (-128 <= value) && (value <= 127);
-		}
-		catch(final NumberFormatException ex)
-		{
-			result = false;
-		}
-
-		return result;
+		return isValidLiteral(literal) && (-128 <= getLiteralValue(literal)) && (getLiteralValue(literal) <= 127);
 	}
 
 	public static byte[] toByteArray(
@@ -94,58 +83,179 @@ public final class Utils
 		return Integer.max(1, neededSize);
 	}
 
-	public static int parseValue(String string) throws NumberFormatException
+	/**
+	 * Flags a valid result of {@link #parseLiteral(CharSequence, int, int)}, whose lower 32 bits are the value
+	 */
+	private static final long VALID_LITERAL_FLAG = 1L << 32;
+	private static final long INVALID_LITERAL = 0;
+
+	/**
+	 * Parses a numeric literal without allocating or throwing. The base is marked by a `0x`, `0d` or `0b`
+	 * prefix, or by an `H`, `D` or `B` post-fix (case insensitive); otherwise it is decimal. Hexadecimal
+	 * literals with a prefix may end with the digits `B` and `D`. A sign may precede the digits.
+	 *
+	 * @param begin The index of the literal's first character
+	 * @param end The index following the literal's last character
+	 * @return The literal, packed with a validity flag (see {@link #isValidLiteral(long)} and
+	 *  {@link #getLiteralValue(long)})
+	 */
+	public static long parseLiteral(
+			final CharSequence text,
+			final int begin,
+			final int end
+			)
 	{
-		int base = 10; //Decimal is the default base
-		boolean baseDetected = false;
+		final int length = end - begin;
+
+		if(length > 2 && text.charAt(begin) == '0' && text.charAt(begin + 1) == 'x')
+		{
+			return parseLiteralDigits(text, begin + 2, end, 16); //A post-fix would be a hexadecimal digit
+		}
 
-		if(string.length() > 1)
+		if(length > 1)
 		{
-			final char postFix = Character.toLowerCase(string.charAt(string.length() - 1));
-			if(postFix == 'h')
+			switch(Character.toLowerCase(text.charAt(end - 1)))
 			{
-				baseDetected = true;
-				base = 16;
-				string = string.substring(0, string.length() - 1);
+				case 'h':
+				{
+					return parseLiteralDigits(text, begin, end - 1, 16);
+				}
+
+				case 'b':
+				{
+					return parseLiteralDigits(text, begin, end - 1, 2);
+				}
+
+				case 'd':
+				{
+					return parseLiteralDigits(text, begin, end - 1, 10);
+				}
 			}
-			else if(postFix == 'b')
+		}
+
+		if(length > 2 && text.charAt(begin) == '0')
+		{
+			if(text.charAt(begin + 1) == 'b')
 			{
-				baseDetected = true;
-				base = 2;
-				string = string.substring(0, string.length() - 1);
+				return parseLiteralDigits(text, begin + 2, end, 2);
 			}
-			else if(postFix == 'd')
+			else if(text.charAt(begin + 1) == 'd')
 			{
-				baseDetected = true;
-				//base = 10; already set as this is the default
-				string = string.substring(0, string.length() - 1);
+				return parseLiteralDigits(text, begin + 2, end, 10);
 			}
 		}
 
-		if(baseDetected == false && string.length() > 2)
+		return parseLiteralDigits(text, begin, end, 10);
+	}
+
+	/**
+	 * Same as {@link #parseLiteral(CharSequence, int, int)}, for a decimal literal without any base marking
+	 */
+	public static long parseDecimalLiteral(
+			final CharSequence text,
+			final int begin,
+			final int end
+			)
+	{
+		return parseLiteralDigits(text, begin, end, 10);
+	}
+
+	public static boolean isValidLiteral(final long literal)
+	{
+		return (literal & VALID_LITERAL_FLAG) != 0;
+	}
+
+	/**
+	 * @param literal A valid literal
+	 */
+	public static int getLiteralValue(final long literal)
+	{
+		return (int)literal;
+	}
+
+	/**
+	 * @return The literal, or {@link #INVALID_LITERAL} if it has no digits, has a non-digit (of the base), or
+	 *  doesn't fit in an `int`
+	 */
+	private static long parseLiteralDigits(
+			final CharSequence text,
+			final int begin,
+			final int end,
+			final int base
+			)
+	{
+		int i = begin;
+		boolean isNegative = false;
+
+		if(i < end && (text.charAt(i) == '-' || text.charAt(i) == '+'))
 		{
-			final String prefix = string.substring(0, 2);
-			if(prefix.equals("0x"))
-			{
-				baseDetected = true;
-				base = 16;
-				string = string.substring(2);
-			}
-			else if(prefix.equals("0b"))
+			isNegative = (text.charAt(i) == '-');
+			i++;
+		}
+
+		if(i >= end)
+		{
+			return INVALID_LITERAL; //No digits
+		}
+
+		final long limit = isNegative ? -(long)Integer.MIN_VALUE : Integer.MAX_VALUE;
+		long magnitude = 0;
+
+		for(; i < end; i++)
+		{
+			final int digit = getDigit(text.charAt(i));
+
+			if(digit < 0 || digit >= base)
 			{
-				baseDetected = true;
-				base = 2;
-				string = string.substring(2);
+				return INVALID_LITERAL;
 			}
-			else if(prefix.equals("0d"))
+
+			magnitude = magnitude * base + digit;
+
+			if(magnitude > limit)
 			{
-				baseDetected = true;
-				//base = 10; already set as this is the default
-				string = string.substring(2);
+				return INVALID_LITERAL; //Overflow
 			}
 		}
 
-		return Integer.parseInt(string, base);
+		return VALID_LITERAL_FLAG | (0xFFFFFFFFL & (isNegative ? -magnitude : magnitude));
+	}
+
+	/**
+	 * @return The value of a (hexadecimal, at most) digit, or -1 if the character isn't a digit
+	 */
+	private static int getDigit(final char c)
+	{
+		if('0' <= c && c <= '9')
+		{
+			return c - '0';
+		}
+		else if('a' <= c && c <= 'f')
+		{
+			return c - 'a' + 10;
+		}
+		else if('A' <= c && c <= 'F')
+		{
+			return c - 'A' + 10;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Same as {@link #parseLiteral(CharSequence, int, int)}, for callers that expect an exception for an
+	 * invalid literal
+	 */
+	public static int parseValue(final String string) throws NumberFormatException
+	{
+		final long literal = parseLiteral(string, 0, string.length());
+
+		if(isValidLiteral(literal) == false)
+		{
+			throw new NumberFormatException("For input string: \"" + string + "\"");
+		}
+
+		return getLiteralValue(literal);
 	}
 
 	public static void displayError(final Throwable throwable)
@@ -160,14 +270,19 @@ public final class Utils
 
 	public static void abort(final String reason)
 	{
-		Utils.displayError(new InternalErrorException(new Exception(reason)));
-		abort();
+		abort(new Exception(reason));
 	}
 
+	/**
+	 * @throws InternalErrorException Always, once it has been displayed
+	 */
 	public static void abort(final Throwable throwable)
 	{
-		Utils.displayError(new InternalErrorException(throwable));
-		abort();
+		final InternalErrorException internalError = new InternalErrorException(throwable);
+
+		Utils.displayError(internalError);
+
+		throw internalError;
 	}
 
 	public static void assertCondition(final boolean condition)
@@ -182,11 +297,4 @@ public final class Utils
 	{
 		Utils.abort("Ilegal operation");
 	}
-
-	private static void abort()
-	{
-		//TODO: Add cleanups like deleting temporary or incomplete files
-
-		System.exit(-1);
-	}
 }
@@ -78,6 +78,31 @@ public abstract class BytesArray
 		}
 	}
 
+	/**
+	 * Copies a range of this array into a primitive array
+	 */
+	public void copyTo(
+			final int sourceIndex,
+			final byte[] destination,
+			final int destinationIndex,
+			final int length
+			)
+	{
+		for(int i = 0; i < length; i++)
+		{
+			destination[destinationIndex + i] = getAt(sourceIndex + i);
+		}
+	}
+
+	public byte[] toByteArray()
+	{
+		final byte[] bytes = new byte[getSize()];
+
+		copyTo(0, bytes, 0, bytes.length);
+
+		return bytes;
+	}
+
 	@Override
 	public String toString()
 	{
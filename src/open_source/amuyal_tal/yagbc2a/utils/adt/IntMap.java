@@ -0,0 +1,196 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.utils.adt;
+
+import java.util.Arrays;
+
+/**
+ * A map of integer keys (e.g. the ids of interned names) to values, that looks keys up by open addressing
+ * (linear probing), without boxing the keys.
+ *
+ * Entries are kept in the order of their insertion. A removed entry keeps its key (with a `null` value), thus
+ * no rehashing is needed on removal.
+ *
+ * @param <V> The type of the values
+ */
+public final class IntMap<V>
+{
+	private static final int INITIAL_CAPACITY = 16; //Must be a power of 2
+
+	private int[] _slots; //An entry index + 1 per slot, 0 for an empty slot
+
+	//Entries, in the order of their insertion
+	private int[] _keys;
+	private Object[] _values;
+	private int _count;
+
+	public IntMap()
+	{
+		_slots = new int[INITIAL_CAPACITY];
+		_keys = new int[INITIAL_CAPACITY / 2];
+		_values = new Object[INITIAL_CAPACITY / 2];
+		_count = 0;
+	}
+
+	/**
+	 * @return The value of the key, or `null` if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(
+			final int key
+			)
+	{
+		final int entry = _slots[findSlot(key)] - 1;
+
+		return (entry < 0) ? null : (V)_values[entry];
+	}
+
+	/**
+	 * Sets the value of a key, replacing the previous one (if any)
+	 */
+	public void put(
+			final int key,
+			final V value
+			)
+	{
+		final int slot = findSlot(key);
+
+		if(_slots[slot] != 0)
+		{
+			_values[_slots[slot] - 1] = value;
+			return;
+		}
+
+		if(_count == _keys.length)
+		{
+			_keys = Arrays.copyOf(_keys, _count * 2);
+			_values = Arrays.copyOf(_values, _count * 2);
+		}
+
+		_keys[_count] = key;
+		_values[_count] = value;
+		_count++;
+
+		if(_count * 2 > _slots.length) //Keeps at least half of the slots empty, for short probing
+		{
+			rehash();
+		}
+		else
+		{
+			_slots[slot] = _count;
+		}
+	}
+
+	/**
+	 * @return The removed value of the key, or `null` if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(
+			final int key
+			)
+	{
+		final int entry = _slots[findSlot(key)] - 1;
+		if(entry < 0)
+		{
+			return null;
+		}
+
+		final V value = (V)_values[entry];
+		_values[entry] = null;
+
+		return value;
+	}
+
+	/**
+	 * @return The amount of entries, including removed ones (entries are in the range [0, count))
+	 */
+	public int getEntriesCount()
+	{
+		return _count;
+	}
+
+	public int getKeyAt(
+			final int entry
+			)
+	{
+		return _keys[entry];
+	}
+
+	/**
+	 * @return The value of the entry, or `null` if it was removed
+	 */
+	@SuppressWarnings("unchecked")
+	public V getValueAt(
+			final int entry
+			)
+	{
+		return (V)_values[entry];
+	}
+
+	/**
+	 * @return The slot of the key, or the empty slot it should be placed in
+	 */
+	private int findSlot(
+			final int key
+			)
+	{
+		final int mask = _slots.length - 1;
+
+		for(int slot = spread(key) & mask; ; slot = (slot + 1) & mask)
+		{
+			final int entry = _slots[slot] - 1;
+
+			if(entry < 0 || _keys[entry] == key)
+			{
+				return slot;
+			}
+		}
+	}
+
+	private void rehash()
+	{
+		_slots = new int[_slots.length * 2];
+		final int mask = _slots.length - 1;
+
+		for(int entry = 0; entry < _count; entry++)
+		{
+			int slot = spread(_keys[entry]) & mask;
+			while(_slots[slot] != 0)
+			{
+				slot = (slot + 1) & mask;
+			}
+
+			_slots[slot] = entry + 1;
+		}
+	}
+
+	/**
+	 * Keys are usually dense, thus they are scattered over the slots (Fibonacci hashing)
+	 */
+	private static int spread(
+			final int key
+			)
+	{
+		final int hash = key * 0x9E3779B9;
+
+		return hash ^ (hash >>> 16);
+	}
+}
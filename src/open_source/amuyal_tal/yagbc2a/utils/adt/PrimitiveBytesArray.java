@@ -0,0 +1,181 @@
+/*
+    Yet Another Gameboy Classic/Color Assembler (YAGBC2A) can compile Gameboy-compatible images.
+    Copyright (C) 2015  Tal Amuyal
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+	Contact information (email): TalAmuyal@gmail.com
+*/
+
+package open_source.amuyal_tal.yagbc2a.utils.adt;
+
+import java.util.Arrays;
+
+import open_source.amuyal_tal.yagbc2a.utils.Utils;
+
+/**
+ * A growable bytes array that is backed by a primitive array (no per-byte objects and no locking)
+ */
+public class PrimitiveBytesArray extends BytesArray
+{
+	private static final int DEFAULT_CAPACITY = 256;
+
+	private byte[] _bytes;
+	private int _size;
+
+	public PrimitiveBytesArray()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	public PrimitiveBytesArray(
+			final int initialCapacity
+			)
+	{
+		_bytes = new byte[Integer.max(1, initialCapacity)];
+		_size = 0;
+	}
+
+	public PrimitiveBytesArray(
+			final byte[] bytes
+			)
+	{
+		this(bytes.length);
+
+		append(bytes);
+	}
+
+	@Override
+	public byte getAt(
+			final int index
+			)
+	{
+		Utils.assertCondition(index < _size);
+
+		return _bytes[index];
+	}
+
+	@Override
+	public void setAt(
+			final int index,
+			final byte value
+			)
+	{
+		Utils.assertCondition(index < _size);
+
+		_bytes[index] = value;
+	}
+
+	@Override
+	public int getSize()
+	{
+		return _size;
+	}
+
+	@Override
+	public void append(
+			final byte value
+			)
+	{
+		ensureCapacity(_size + 1);
+
+		_bytes[_size++] = value;
+	}
+
+	@Override
+	public void append(
+			final byte[] bytes
+			)
+	{
+		append(bytes, 0, bytes.length);
+	}
+
+	public void append(
+			final byte[] bytes,
+			final int offset,
+			final int length
+			)
+	{
+		ensureCapacity(_size + length);
+
+		System.arraycopy(bytes, offset, _bytes, _size, length);
+		_size += length;
+	}
+
+	@Override
+	public void append(
+			final BytesArray other
+			)
+	{
+		final int length = other.getSize();
+
+		ensureCapacity(_size + length);
+
+		other.copyTo(0, _bytes, _size, length);
+		_size += length;
+	}
+
+	/**
+	 * Appends zeroed bytes, to be set in place
+	 *
+	 * @return The index of the first appended byte
+	 */
+	public int reserve(
+			final int length
+			)
+	{
+		ensureCapacity(_size + length);
+
+		final int startIndex = _size;
+
+		Arrays.fill(_bytes, startIndex, startIndex + length, (byte)0);
+		_size += length;
+
+		return startIndex;
+	}
+
+	@Override
+	public void override(
+			final int startIndex,
+			final byte[] bytes
+			)
+	{
+		Utils.assertCondition(0 <= startIndex && startIndex + bytes.length <= _size);
+
+		System.arraycopy(bytes, 0, _bytes, startIndex, bytes.length);
+	}
+
+	@Override
+	public void copyTo(
+			final int sourceIndex,
+			final byte[] destination,
+			final int destinationIndex,
+			final int length
+			)
+	{
+		Utils.assertCondition(0 <= sourceIndex && sourceIndex + length <= _size);
+
+		System.arraycopy(_bytes, sourceIndex, destination, destinationIndex, length);
+	}
+
+	private void ensureCapacity(
+			final int capacity
+			)
+	{
+		if(capacity > _bytes.length)
+		{
+			_bytes = Arrays.copyOf(_bytes, Integer.max(capacity, _bytes.length * 2));
+		}
+	}
+}
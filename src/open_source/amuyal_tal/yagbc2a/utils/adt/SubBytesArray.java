@@ -63,6 +63,20 @@ public class SubBytesArray extends BytesArray
 		_pointed.setAt(_startIndex + index, value);
 	}
 
+	@Override
+	public void copyTo(
+			final int sourceIndex,
+			final byte[] destination,
+			final int destinationIndex,
+			final int length
+			)
+	{
+		Utils.assertCondition(sourceIndex >= 0);
+		Utils.assertCondition(sourceIndex + length <= _length);
+
+		_pointed.copyTo(_startIndex + sourceIndex, destination, destinationIndex, length);
+	}
+
 	@Override
 	public int getSize()
 	{
@@ -0,0 +1,4 @@
+define string __program_name "NoMain"
+define string __manufacturer_code "---"
+
+start:
@@ -0,0 +1,5 @@
+define string __program_name "BitSymbol"
+define string __manufacturer_code "---"
+
+main:
+BIT index,A
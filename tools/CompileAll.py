@@ -76,18 +76,19 @@ def main(argv):
 
 
 	"""
-	Compile
+	Compile (all of the files are compiled by a single process, using the batch mode)
 	"""
-	for file in os.listdir(INPUT_DIR):
-		if file.endswith(".asm"):
-			commandArgs = [JAVA_INTERPRETER, "-cp", COMPILED_PROJECT_DIR, COMPILED_PROJECT, INPUT_DIR + file, "-o", OUTPUT_DIR + file[:-4] + ".gb"]
-			compileCommand = " ".join(commandArgs)
-			os.popen(compileCommand).read() #Executa command and hide output
+	commandArgs = [JAVA_INTERPRETER, "-cp", COMPILED_PROJECT_DIR, COMPILED_PROJECT, "--batch", INPUT_DIR, "--output-dir", OUTPUT_DIR]
+	compileCommand = " ".join(commandArgs)
+	compilation = os.popen(compileCommand)
+	compilation.read() #Executa command and hide output
+
+	return 0 if compilation.close() is None else 1 #Non-zero if any of the files couldn't be compiled
 
 
 """
 Main
 """
 if __name__ == "__main__":
-	main(sys.argv[1:])
+	sys.exit(main(sys.argv[1:]))
 
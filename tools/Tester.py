@@ -12,6 +12,7 @@ The above may be altered by reconfiguring the proper variables
 @ Note(s)
 
 - After each run, the compiled test files are kept for manual debugging and inspection, but deleted at the beginning of the next execution of this tool.
+- All of the tests are compiled by a single build server (a single JVM), rather than a JVM per test.
 """
 
 """
@@ -23,27 +24,49 @@ COMPILED_PROJECT = "open_source.amuyal_tal.yagbc2a.Main"
 TESTS_DIR = "tests"
 TEST_TEMP_BIN_DIR = "bin"
 TEST_EXPECTATION_DIR = "tests"
+SERVER_SUCCESS_STATUS = "@ok"
+SERVER_FAILURE_STATUS = "@failed"
 
 
 """
 Imports
 """
 import os
+import subprocess
 
 
 """
 Helper functions
 """
-def compile(fileName):
-	compileCommand = JAVA_INTERPRETER + " -cp " + COMPILED_PROJECT_DIR + " " + COMPILED_PROJECT + " " + TESTS_DIR + "/" + fileName + ".asm -o " + TEST_TEMP_BIN_DIR + "/" + fileName + ".gb"
-	os.popen(compileCommand).read()
+def build(fileName):
+	server.stdin.write(TESTS_DIR + "/" + fileName + ".asm -o " + TEST_TEMP_BIN_DIR + "/" + fileName + ".gb\n")
+	server.stdin.flush()
+
+	#Skip the build's messages, up to the status line
+	while True:
+		line = server.stdout.readline()
+		if not line or line.rstrip() in (SERVER_SUCCESS_STATUS, SERVER_FAILURE_STATUS):
+			break
+
+	return os.path.isfile(TEST_TEMP_BIN_DIR + "/" + fileName + ".gb")
 
-	if os.path.isfile(TEST_TEMP_BIN_DIR + "/" + fileName + ".gb"):
+def compile(fileName):
+	if build(fileName):
 		return True
 	else:
 		errors.append('`' + fileName + ".asm` couldn't be compiled")
 		return False
 
+def isFailureExpected(fileName):
+	return os.path.isfile(TEST_EXPECTATION_DIR + "/" + fileName + ".fail")
+
+def compileFailing(fileName):
+	if build(fileName):
+		errors.append('`' + fileName + ".asm` was compiled, although it's expected to fail")
+		return False
+	else:
+		return True
+
 def compareCompilation(fileName):
 	with open(TEST_EXPECTATION_DIR + "/" + fileName + ".gb", "rb") as expected, open(TEST_TEMP_BIN_DIR + "/" + fileName + ".gb", "rb") as result:
 		if expected.read() == result.read():
@@ -61,6 +84,16 @@ for file in os.listdir(TEST_TEMP_BIN_DIR):
 		os.remove(TEST_TEMP_BIN_DIR + "/" + file)
 
 
+"""
+Start the build server
+"""
+server = subprocess.Popen(
+	[JAVA_INTERPRETER, "-cp", COMPILED_PROJECT_DIR, COMPILED_PROJECT, "--server"],
+	stdin = subprocess.PIPE,
+	stdout = subprocess.PIPE,
+	universal_newlines = True)
+
+
 """
 Create report variables
 """
@@ -78,6 +111,13 @@ for file in os.listdir(TESTS_DIR):
 
 		#Each iteration has it's line
 		print("Compiling `" + file + "`...", end = "", flush = True)
+		if isFailureExpected(fileName):
+			if not compileFailing(fileName):
+				print(" failed")
+				continue
+			print(" failed as expected.")
+			continue
+
 		if not compile(fileName):
 			print(" failed")
 			continue
@@ -92,6 +132,14 @@ for file in os.listdir(TESTS_DIR):
 		print(".") #End iteration line
 
 
+"""
+Stop the build server
+"""
+server.stdin.write("@shutdown\n")
+server.stdin.close()
+server.wait()
+
+
 """
 Print visual segmentation
 """